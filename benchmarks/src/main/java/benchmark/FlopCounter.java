@@ -0,0 +1,23 @@
+package benchmark;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Floating-point operations performed by a benchmark method. With nanoseconds
+ * as the output unit, JMH reports this counter as flops/ns, which is exactly
+ * GFLOP/s.
+ */
+@AuxCounters(AuxCounters.Type.OPERATIONS)
+@State(Scope.Thread)
+public class FlopCounter {
+    public long flops;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+        flops = 0;
+    }
+}
@@ -0,0 +1,127 @@
+package benchmark;
+
+import model.ForkJoinMatrixMultiplier;
+import model.Matrix;
+import model.MatrixMultiplier;
+import model.MatrixUtils;
+import model.SequentialMatrixMultiplier;
+import model.VectorKernel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of every engine over size and shape, each at its default tile
+ * threshold; {@link ThresholdBenchmark} sweeps the threshold and
+ * {@link StrassenBenchmark} covers the sizes where Strassen recurses.
+ * <p>
+ * Each invocation adds its floating-point operation count (2·m·n·p) to the
+ * {@link FlopCounter} aux counter.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(value = 2, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector", "--enable-preview"})
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class MatrixMultiplyBenchmark {
+
+    public enum Shape {
+        // All shapes perform size³ multiply-adds, so GFLOP/s compare directly
+        SQUARE(1, 1, 1),
+        SHORT_WIDE(8, 1, 1.0 / 8),
+        TALL_NARROW(1.0 / 8, 1, 8),
+        INNER(8, 1.0 / 64, 8);
+
+        private final double rowDivisor;
+        private final double depthDivisor;
+        private final double colDivisor;
+
+        Shape(double rowDivisor, double depthDivisor, double colDivisor) {
+            this.rowDivisor = rowDivisor;
+            this.depthDivisor = depthDivisor;
+            this.colDivisor = colDivisor;
+        }
+
+        int rows(int size) {
+            return Math.max(1, (int) (size / rowDivisor));
+        }
+
+        int depth(int size) {
+            return Math.max(1, (int) (size / depthDivisor));
+        }
+
+        int cols(int size) {
+            return Math.max(1, (int) (size / colDivisor));
+        }
+    }
+
+    public enum Engine {
+        SEQUENTIAL {
+            @Override
+            MatrixMultiplier create() {
+                return new SequentialMatrixMultiplier();
+            }
+        },
+        FORK_JOIN {
+            @Override
+            MatrixMultiplier create() {
+                return new ForkJoinMatrixMultiplier(DEFAULT_THRESHOLD);
+            }
+        },
+        FORK_JOIN_VECTOR {
+            @Override
+            MatrixMultiplier create() {
+                return new ForkJoinMatrixMultiplier(DEFAULT_THRESHOLD, new VectorKernel());
+            }
+        };
+
+        abstract MatrixMultiplier create();
+    }
+
+    // The threshold the library's own engines default to
+    static final int DEFAULT_THRESHOLD = 64;
+
+    @Param({"256", "512", "1024"})
+    public int size;
+
+    @Param({"SQUARE", "SHORT_WIDE", "TALL_NARROW", "INNER"})
+    public Shape shape;
+
+    @Param({"SEQUENTIAL", "FORK_JOIN", "FORK_JOIN_VECTOR"})
+    public Engine engine;
+
+    private Matrix a;
+    private Matrix b;
+    private MatrixMultiplier multiplier;
+    private long flopsPerCall;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        int m = shape.rows(size);
+        int n = shape.depth(size);
+        int p = shape.cols(size);
+        a = MatrixUtils.randomMatrix(m, n);
+        b = MatrixUtils.randomMatrix(n, p);
+        multiplier = engine.create();
+        flopsPerCall = 2L * m * n * p;
+    }
+
+    @Benchmark
+    public Matrix multiply(FlopCounter counter) {
+        Matrix result = multiplier.multiply(a, b);
+        counter.flops += flopsPerCall;
+        return result;
+    }
+}
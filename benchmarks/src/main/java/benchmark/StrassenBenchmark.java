@@ -0,0 +1,66 @@
+package benchmark;
+
+import model.ForkJoinMatrixMultiplier;
+import model.Matrix;
+import model.MatrixMultiplier;
+import model.MatrixUtils;
+import model.StrassenMatrixMultiplier;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Strassen over its crossover. Every size is above every crossover, so each
+ * trial recurses at least once; below the crossover Strassen is just its
+ * fork/join leaf engine and would repeat that engine's numbers.
+ * <p>
+ * The flop counter is credited with the classical 2·n³, so GFLOP/s here is
+ * effective throughput, directly comparable with FORK_JOIN in
+ * {@link MatrixMultiplyBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(value = 2, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector", "--enable-preview"})
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class StrassenBenchmark {
+
+    @Param({"1024", "2048"})
+    public int size;
+
+    @Param({"256", "512"})
+    public int crossover;
+
+    private Matrix a;
+    private Matrix b;
+    private MatrixMultiplier multiplier;
+    private long flopsPerCall;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        a = MatrixUtils.randomMatrix(size, size);
+        b = MatrixUtils.randomMatrix(size, size);
+        multiplier = new StrassenMatrixMultiplier(crossover,
+                new ForkJoinMatrixMultiplier(MatrixMultiplyBenchmark.DEFAULT_THRESHOLD));
+        flopsPerCall = 2L * size * size * size;
+    }
+
+    @Benchmark
+    public Matrix multiply(FlopCounter counter) {
+        Matrix result = multiplier.multiply(a, b);
+        counter.flops += flopsPerCall;
+        return result;
+    }
+}
@@ -0,0 +1,80 @@
+package benchmark;
+
+import model.ForkJoinMatrixMultiplier;
+import model.Matrix;
+import model.MatrixMultiplier;
+import model.MatrixUtils;
+import model.VectorKernel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tile threshold sweep of the fork/join engines, the only ones whose work
+ * decomposition depends on it, on square products.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(value = 2, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector", "--enable-preview"})
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ThresholdBenchmark {
+
+    public enum Engine {
+        FORK_JOIN {
+            @Override
+            MatrixMultiplier create(int threshold) {
+                return new ForkJoinMatrixMultiplier(threshold);
+            }
+        },
+        FORK_JOIN_VECTOR {
+            @Override
+            MatrixMultiplier create(int threshold) {
+                return new ForkJoinMatrixMultiplier(threshold, new VectorKernel());
+            }
+        };
+
+        abstract MatrixMultiplier create(int threshold);
+    }
+
+    @Param({"512", "1024"})
+    public int size;
+
+    @Param({"32", "64", "128"})
+    public int threshold;
+
+    @Param({"FORK_JOIN", "FORK_JOIN_VECTOR"})
+    public Engine engine;
+
+    private Matrix a;
+    private Matrix b;
+    private MatrixMultiplier multiplier;
+    private long flopsPerCall;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        a = MatrixUtils.randomMatrix(size, size);
+        b = MatrixUtils.randomMatrix(size, size);
+        multiplier = engine.create(threshold);
+        flopsPerCall = 2L * size * size * size;
+    }
+
+    @Benchmark
+    public Matrix multiply(FlopCounter counter) {
+        Matrix result = multiplier.multiply(a, b);
+        counter.flops += flopsPerCall;
+        return result;
+    }
+}
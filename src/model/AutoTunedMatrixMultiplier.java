@@ -0,0 +1,62 @@
+package model;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntConsumer;
+
+/**
+ * Fork/join multiplier that picks its threshold and block sizes per call from a
+ * {@link TuningProfile}, based on the shape of the product. One engine is kept
+ * per distinct parameter set, so repeated shapes reuse the same instance.
+ */
+public class AutoTunedMatrixMultiplier implements MatrixMultiplier {
+
+    private final TuningProfile profile;
+    private final ForkJoinPool pool;
+    private final Map<TuningProfile.Parameters, ForkJoinMatrixMultiplier> engines = new ConcurrentHashMap<>();
+
+    public AutoTunedMatrixMultiplier(TuningProfile profile) {
+        this(profile, ForkJoinPool.commonPool());
+    }
+
+    public AutoTunedMatrixMultiplier(TuningProfile profile, ForkJoinPool pool) {
+        this.profile = profile;
+        this.pool = pool;
+    }
+
+    /** Uses the profile in the default location, calibrating it first if needed. */
+    public static AutoTunedMatrixMultiplier fromDefaultProfile() throws IOException {
+        return new AutoTunedMatrixMultiplier(AutoTuner.loadOrCalibrate(TuningProfile.DEFAULT_LOCATION));
+    }
+
+    public TuningProfile getProfile() {
+        return profile;
+    }
+
+    public TuningProfile.Parameters parametersFor(Matrix a, Matrix b) {
+        return profile.lookup(a.getRows(), a.getCols(), b.getCols());
+    }
+
+    @Override
+    public Matrix multiply(Matrix a, Matrix b) {
+        return multiply(a, b, (ExecutionMetrics) null);
+    }
+
+    public Matrix multiply(Matrix a, Matrix b, IntConsumer progressCallback) {
+        MatrixUtils.validateDimensions(a, b);
+        return engineFor(a, b).multiply(a, b, progressCallback);
+    }
+
+    public Matrix multiply(Matrix a, Matrix b, ExecutionMetrics metrics) {
+        MatrixUtils.validateDimensions(a, b);
+        return engineFor(a, b).multiply(a, b, metrics);
+    }
+
+    /** The engine configured for this product's shape. */
+    public ForkJoinMatrixMultiplier engineFor(Matrix a, Matrix b) {
+        return engines.computeIfAbsent(parametersFor(a, b), p -> new ForkJoinMatrixMultiplier(p.getThreshold(),
+                AutoTuner.newKernel(p.getBlockK(), p.getBlockN()), pool));
+    }
+}
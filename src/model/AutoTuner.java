@@ -0,0 +1,132 @@
+package model;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Short calibration sweep that fills a {@link TuningProfile} for this host.
+ * <p>
+ * For every shape class and calibration size it first sweeps the fork/join
+ * threshold with the cache-derived block sizes, then sweeps the block sizes at
+ * the winning threshold. Each candidate is timed as the best of a few runs after
+ * one warmup run, which is enough to separate candidates without JMH.
+ */
+public class AutoTuner {
+
+    private static final int[] THRESHOLDS = {16, 32, 64, 128, 256};
+    private static final int[] CALIBRATION_SIZES = {256, 512};
+    private static final int[] BLOCK_WIDTHS = {64, 128, 256};
+    private static final int RUNS = 3;
+
+    private final HostInfo host;
+    private final PrintStream log;
+
+    public AutoTuner() {
+        this(HostInfo.current(), null);
+    }
+
+    /**
+     * @param log receives one line per measured candidate, may be null
+     */
+    public AutoTuner(HostInfo host, PrintStream log) {
+        this.host = host;
+        this.log = log;
+    }
+
+    /**
+     * Returns the profile stored at file if it was measured on this host,
+     * otherwise calibrates a new one and stores it there.
+     */
+    public static TuningProfile loadOrCalibrate(Path file) throws IOException {
+        HostInfo current = HostInfo.current();
+        TuningProfile profile;
+        try {
+            profile = TuningProfile.load(file);
+        } catch (IOException _) {
+            profile = null; // Unreadable or malformed, recalibrate below
+        }
+        if (profile != null && !profile.isEmpty() && profile.getHost().equals(current)) {
+            return profile;
+        }
+
+        profile = new AutoTuner(current, null).calibrate();
+        profile.save(file);
+        return profile;
+    }
+
+    public TuningProfile calibrate() {
+        TuningProfile profile = new TuningProfile(host);
+        List<int[]> blocks = blockCandidates();
+        int[] defaultBlock = blocks.get(blocks.size() / 2);
+
+        for (ShapeClass shape : ShapeClass.values()) {
+            for (int size : CALIBRATION_SIZES) {
+                int[] dims = shape.dimensions(size);
+                Matrix a = MatrixUtils.randomMatrix(dims[0], dims[1]);
+                Matrix b = MatrixUtils.randomMatrix(dims[1], dims[2]);
+
+                int bestThreshold = THRESHOLDS[0];
+                long bestTime = Long.MAX_VALUE;
+                for (int threshold : THRESHOLDS) {
+                    long time = time(a, b, threshold, defaultBlock[0], defaultBlock[1]);
+                    report(shape, size, threshold, defaultBlock, time);
+                    if (time < bestTime) {
+                        bestTime = time;
+                        bestThreshold = threshold;
+                    }
+                }
+
+                int[] bestBlock = defaultBlock;
+                for (int[] block : blocks) {
+                    if (block == defaultBlock) {
+                        continue;
+                    }
+                    long time = time(a, b, bestThreshold, block[0], block[1]);
+                    report(shape, size, bestThreshold, block, time);
+                    if (time < bestTime) {
+                        bestTime = time;
+                        bestBlock = block;
+                    }
+                }
+
+                profile.put(shape, ShapeClass.sizeBucket(dims[0], dims[1], dims[2]),
+                        new TuningProfile.Parameters(bestThreshold, bestBlock[0], bestBlock[1]));
+            }
+        }
+        return profile;
+    }
+
+    // {blockK, blockN} pairs: a B slab row plus the C segment it updates use at
+    // most half of L1, and the whole blockK x blockN slab at most half of L2
+    List<int[]> blockCandidates() {
+        List<int[]> candidates = new ArrayList<>();
+        for (int blockN : BLOCK_WIDTHS) {
+            if (blockN > BLOCK_WIDTHS[0] && 2L * blockN * Double.BYTES > host.getL1dBytes() / 2) {
+                continue;
+            }
+            long slabRows = host.getL2Bytes() / 2 / ((long) blockN * Double.BYTES);
+            int blockK = Integer.highestOneBit((int) Math.max(64, Math.min(1024, slabRows)));
+            candidates.add(new int[]{blockK, blockN});
+        }
+        return candidates;
+    }
+
+    static BlockedKernel newKernel(int blockK, int blockN) {
+        return VectorKernel.isAvailable() ? new VectorKernel(blockK, blockN) : new BlockedKernel(blockK, blockN);
+    }
+
+    private long time(Matrix a, Matrix b, int threshold, int blockK, int blockN) {
+        ForkJoinMatrixMultiplier multiplier = new ForkJoinMatrixMultiplier(threshold, newKernel(blockK, blockN));
+        return MatrixUtils.measureBest(() -> multiplier.multiply(a, b), RUNS);
+    }
+
+    private void report(ShapeClass shape, int size, int threshold, int[] block, long nanos) {
+        if (log != null) {
+            log.printf("%-12s %-6d %-10d %-7d %-7d %.2f ms\n",
+                    shape, size, threshold, block[0], block[1], nanos / 1e6);
+        }
+    }
+}
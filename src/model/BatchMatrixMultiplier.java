@@ -0,0 +1,210 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Multiplies many equal-shaped pairs (A_i, B_i) in one call, for small matrices
+ * where a per-product {@link ForkJoinMatrixMultiplier#multiply} spends more time
+ * on validation, packing and the pool round-trip than on arithmetic.
+ * <p>
+ * The work is the flat range of (item, row) units: unit u computes row u % m of
+ * C_u/m. Tasks split that range in half until a range holds at most grain
+ * multiply-adds, so a large batch of tiny products parallelizes across items
+ * while a few larger products split across their rows. A batch below the grain
+ * runs in the calling thread without touching the pool. Operands are small
+ * enough to stay in cache, so B is read in place rather than packed.
+ */
+public class BatchMatrixMultiplier {
+
+    public static final int DEFAULT_GRAIN = 1 << 15;
+
+    private final int grain;
+    private final BlockedKernel kernel;
+    private final ForkJoinPool pool;
+
+    public BatchMatrixMultiplier() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public BatchMatrixMultiplier(ForkJoinPool pool) {
+        this(DEFAULT_GRAIN, new BlockedKernel(), pool);
+    }
+
+    /**
+     * @param grain  multiply-adds below which a range of rows is computed directly
+     * @param kernel supplies the inner axpy loop (a {@link VectorKernel} vectorizes it)
+     */
+    public BatchMatrixMultiplier(int grain, BlockedKernel kernel, ForkJoinPool pool) {
+        if (grain < 1) {
+            throw new IllegalArgumentException("Grain must be a positive integer, got " + grain);
+        }
+        this.grain = grain;
+        this.kernel = kernel;
+        this.pool = pool;
+    }
+
+    /** Returns [a.get(i) * b.get(i)]; every A_i must have one shape and every B_i another. */
+    public List<Matrix> multiply(List<Matrix> a, List<Matrix> b) {
+        if (a.isEmpty() || a.size() != b.size()) {
+            throw new IllegalArgumentException(
+                    String.format("Batches must be non-empty and of equal size, got %d and %d",
+                            a.size(), b.size())
+            );
+        }
+        int count = a.size();
+        int m = a.getFirst().getRows();
+        int n = a.getFirst().getCols();
+        int p = b.getFirst().getCols();
+        MatrixUtils.validateDimensions(m, n, b.getFirst().getRows(), p);
+
+        double[][] aData = new double[count][];
+        double[][] bData = new double[count][];
+        double[][] cData = new double[count][];
+        for (int i = 0; i < count; i++) {
+            Matrix ai = a.get(i);
+            Matrix bi = b.get(i);
+            if (ai.getRows() != m || ai.getCols() != n || bi.getRows() != n || bi.getCols() != p) {
+                throw new IllegalArgumentException(
+                        String.format("Pair %d is %dx%d × %dx%d, expected %dx%d × %dx%d",
+                                i, ai.getRows(), ai.getCols(), bi.getRows(), bi.getCols(), m, n, n, p)
+                );
+            }
+            aData[i] = ai.raw();
+            bData[i] = bi.raw();
+            cData[i] = new double[m * p];
+        }
+
+        run(new Operands(aData, 0), new Operands(bData, 0), new Operands(cData, 0), count, m, n, p);
+
+        List<Matrix> results = new ArrayList<>(count);
+        for (double[] c : cData) {
+            results.add(Matrix.adopt(c, m, p));
+        }
+        return results;
+    }
+
+    /**
+     * Strided batch: A_i is the row-major m x n matrix at a[i * strideA], B_i the
+     * n x p matrix at b[i * strideB], and C_i = A_i * B_i overwrites the m x p
+     * matrix at c[i * strideC]. A stride of 0 for A or B reuses one operand for
+     * the whole batch; C slots must not overlap.
+     */
+    public void multiply(double[] a, int strideA, double[] b, int strideB, double[] c, int strideC,
+                         int count, int m, int n, int p) {
+        if (count < 1 || m < 1 || n < 1 || p < 1) {
+            throw new IllegalArgumentException(
+                    String.format("Batch of %d products of %dx%d × %dx%d is empty", count, m, n, n, p)
+            );
+        }
+        checkStrided("A", a, strideA, count, m * n, false);
+        checkStrided("B", b, strideB, count, n * p, false);
+        checkStrided("C", c, strideC, count, m * p, true);
+
+        run(new Operands(new double[][]{a}, strideA), new Operands(new double[][]{b}, strideB),
+                new Operands(new double[][]{c}, strideC), count, m, n, p);
+    }
+
+    private static void checkStrided(String name, double[] data, int stride, int count, int size,
+                                     boolean output) {
+        if (stride < 0 || (stride < size && (output || stride != 0) && count > 1)) {
+            throw new IllegalArgumentException(String.format(
+                    "Stride %d of %s overlaps its %d-element matrices", stride, name, size));
+        }
+        if ((long) (count - 1) * stride + size > data.length) {
+            throw new IllegalArgumentException(String.format(
+                    "%s holds %d elements, %d products need %d",
+                    name, data.length, count, (long) (count - 1) * stride + size));
+        }
+    }
+
+    private void run(Operands a, Operands b, Operands c, int count, int m, int n, int p) {
+        long units = (long) count * m;
+        long rowWork = (long) n * p;
+        BatchTask task = new BatchTask(a, b, c, m, n, p, Math.max(1, grain / rowWork), 0, units);
+        if (units * rowWork <= grain) {
+            task.compute();
+        } else {
+            pool.invoke(task);
+        }
+    }
+
+    // One operand per item, or one shared array addressed by item * itemStride
+    private static final class Operands {
+        final double[][] arrays;
+        final int itemStride;
+
+        Operands(double[][] arrays, int itemStride) {
+            this.arrays = arrays;
+            this.itemStride = itemStride;
+        }
+
+        double[] array(int item) {
+            return arrays.length == 1 ? arrays[0] : arrays[item];
+        }
+
+        int offset(int item) {
+            return item * itemStride;
+        }
+    }
+
+    private class BatchTask extends RecursiveAction {
+
+        private final Operands a;
+        private final Operands b;
+        private final Operands c;
+        private final int m;
+        private final int n;
+        private final int p;
+        private final long leafUnits;
+        private final long from;          // Inclusive
+        private final long to;            // Exclusive
+
+        BatchTask(Operands a, Operands b, Operands c, int m, int n, int p,
+                  long leafUnits, long from, long to) {
+            this.a = a;
+            this.b = b;
+            this.c = c;
+            this.m = m;
+            this.n = n;
+            this.p = p;
+            this.leafUnits = leafUnits;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= leafUnits) {
+                for (long u = from; u < to; u++) {
+                    row((int) (u / m), (int) (u % m));
+                }
+                return;
+            }
+            long mid = from + (to - from) / 2;
+            BatchTask left = new BatchTask(a, b, c, m, n, p, leafUnits, from, mid);
+            BatchTask right = new BatchTask(a, b, c, m, n, p, leafUnits, mid, to);
+            left.fork();
+            right.compute();
+            left.join();
+        }
+
+        // Row i of C_item, as n axpys of B rows in place (B is a few KB at most)
+        private void row(int item, int i) {
+            double[] aData = a.array(item);
+            double[] bData = b.array(item);
+            double[] cData = c.array(item);
+            int aRow = a.offset(item) + i * n;
+            int bBase = b.offset(item);
+            int cRow = c.offset(item) + i * p;
+
+            Arrays.fill(cData, cRow, cRow + p, 0.0);
+            for (int k = 0; k < n; k++) {
+                kernel.axpy(aData[aRow + k], bData, bBase + k * p, cData, cRow, p);
+            }
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package model;
+
+/**
+ * Package-private strided view over a row-major buffer: element (i, j) of the
+ * view is data[offset + i * stride + j * colStride]. Lets kernels work on
+ * quadrants, workspace slices and transposes without copying them into a
+ * fresh {@link Matrix}. Views made from a matrix have colStride 1.
+ */
+final class Block {
+    final double[] data;
+    final int offset;
+    final int stride;
+    final int colStride;
+    final int rows;
+    final int cols;
+
+    Block(double[] data, int offset, int stride, int rows, int cols) {
+        this(data, offset, stride, 1, rows, cols);
+    }
+
+    Block(double[] data, int offset, int stride, int colStride, int rows, int cols) {
+        this.data = data;
+        this.offset = offset;
+        this.stride = stride;
+        this.colStride = colStride;
+        this.rows = rows;
+        this.cols = cols;
+    }
+
+    static Block of(Matrix m) {
+        return new Block(m.raw(), 0, m.stride(), m.getRows(), m.getCols());
+    }
+
+    static Block of(DenseMatrix m) {
+        return switch (m) {
+            case Matrix matrix -> of(matrix);
+            case MatrixBuffer buffer -> new Block(buffer.raw(), 0, buffer.stride(), buffer.getRows(), buffer.getCols());
+        };
+    }
+
+    Block sub(int row, int col, int rowCount, int colCount) {
+        return new Block(data, index(row, col), stride, colStride, rowCount, colCount);
+    }
+
+    // Same elements, rows and columns swapped
+    Block transpose() {
+        return new Block(data, offset, colStride, stride, cols, rows);
+    }
+
+    int index(int row, int col) {
+        return offset + row * stride + col * colStride;
+    }
+}
@@ -0,0 +1,144 @@
+package model;
+
+/**
+ * Cache-blocked multiply kernel shared by the sequential and fork/join engines.
+ * <p>
+ * B is packed once per multiply into column panels of {@code blockN} columns,
+ * each panel stored row-major and contiguous. The kernel then walks a panel in
+ * {@code blockK}-deep slabs: a slab ({@code blockK x blockN} doubles) is sized to
+ * stay in L2 while every row of the A tile streams over it, and one slab row
+ * ({@code blockN} doubles) plus the matching C segment stay in L1 for the
+ * innermost axpy loop, which runs unit-stride over both arrays.
+ */
+public class BlockedKernel {
+
+    public static final int DEFAULT_BLOCK_K = 256;
+    public static final int DEFAULT_BLOCK_N = 128;
+
+    private final int blockK;
+    private final int blockN;
+
+    public BlockedKernel() {
+        this(DEFAULT_BLOCK_K, DEFAULT_BLOCK_N);
+    }
+
+    public BlockedKernel(int blockK, int blockN) {
+        if (blockK < 1 || blockN < 1) {
+            throw new IllegalArgumentException(
+                    String.format("Block sizes must be positive (blockK=%d, blockN=%d)", blockK, blockN)
+            );
+        }
+        this.blockK = blockK;
+        this.blockN = blockN;
+    }
+
+    public int getBlockK() {
+        return blockK;
+    }
+
+    public int getBlockN() {
+        return blockN;
+    }
+
+    /**
+     * Repacks B into contiguous column panels. Panel q holds columns
+     * [q * blockN, min(cols, (q + 1) * blockN)) and starts at q * blockN * depth.
+     */
+    Panels pack(Matrix b) {
+        return pack(Block.of(b));
+    }
+
+    Panels pack(Block b) {
+        return pack(b, 1.0);
+    }
+
+    /**
+     * Packs alpha * B. Scaling (and reading a transposed view) happens during
+     * the copy the kernel needs anyway, so GEMM's alpha costs nothing extra.
+     */
+    Panels pack(Block b, double alpha) {
+        return pack(b, alpha, null);
+    }
+
+    // Packs into buffer when it is large enough, otherwise into a new array
+    Panels pack(Block b, double alpha, double[] buffer) {
+        int depth = b.rows;
+        int cols = b.cols;
+        double[] packed = buffer != null && buffer.length >= depth * cols ? buffer : new double[depth * cols];
+
+        for (int j0 = 0; j0 < cols; j0 += blockN) {
+            int width = Math.min(blockN, cols - j0);
+            int base = j0 * depth;
+            for (int k = 0; k < depth; k++) {
+                int src = b.index(k, j0);
+                int dst = base + k * width;
+                if (alpha == 1.0 && b.colStride == 1) {
+                    System.arraycopy(b.data, src, packed, dst, width);
+                } else {
+                    for (int j = 0; j < width; j++) {
+                        packed[dst + j] = alpha * b.data[src + j * b.colStride];
+                    }
+                }
+            }
+        }
+        return new Panels(packed, depth, cols, blockN);
+    }
+
+    /**
+     * Accumulates C += A[rowStart:rowEnd, kStart:kEnd] * B[kStart:kEnd, colStart:colEnd].
+     * C is addressed relative to the tile origin: element (i, j) of the product
+     * lands at c[cOffset + (i - rowStart) * cStride + (j - colStart)].
+     */
+    void multiply(Matrix a, Panels b, double[] c, int cOffset, int cStride,
+                  int rowStart, int rowEnd, int colStart, int colEnd, int kStart, int kEnd) {
+        multiply(Block.of(a), b, c, cOffset, cStride, rowStart, rowEnd, colStart, colEnd, kStart, kEnd);
+    }
+
+    void multiply(Block a, Panels b, double[] c, int cOffset, int cStride,
+                  int rowStart, int rowEnd, int colStart, int colEnd, int kStart, int kEnd) {
+        double[] aData = a.data;
+        int aStep = a.colStride;      // 1, or A's row stride when A is a transposed view
+        double[] bData = b.data;
+
+        int firstPanel = colStart / b.width;
+        for (int j0 = firstPanel * b.width; j0 < colEnd; j0 += b.width) {
+            int width = Math.min(b.width, b.cols - j0);
+            int from = Math.max(colStart, j0);
+            int to = Math.min(colEnd, j0 + width);
+            int panel = j0 * b.depth;
+
+            for (int k0 = kStart; k0 < kEnd; k0 += blockK) {
+                int k1 = Math.min(kEnd, k0 + blockK);
+
+                for (int i = rowStart; i < rowEnd; i++) {
+                    int aRow = a.index(i, 0);
+                    int cRow = cOffset + (i - rowStart) * cStride + (from - colStart);
+                    for (int k = k0; k < k1; k++) {
+                        axpy(aData[aRow + k * aStep], bData, panel + k * width + (from - j0), c, cRow, to - from);
+                    }
+                }
+            }
+        }
+    }
+
+    // y[yOffset .. yOffset + length) += alpha * x[xOffset .. xOffset + length)
+    protected void axpy(double alpha, double[] x, int xOffset, double[] y, int yOffset, int length) {
+        for (int j = 0; j < length; j++) {
+            y[yOffset + j] += alpha * x[xOffset + j];
+        }
+    }
+
+    static final class Panels {
+        final double[] data;
+        final int depth;
+        final int cols;
+        final int width;
+
+        Panels(double[] data, int depth, int cols, int width) {
+            this.data = data;
+            this.depth = depth;
+            this.cols = cols;
+            this.width = width;
+        }
+    }
+}
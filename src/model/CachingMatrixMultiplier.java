@@ -0,0 +1,161 @@
+package model;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+/**
+ * Decorator that remembers products by the content of their operands. The key
+ * is the pair of {@link Matrix#fingerprint()}s plus the shapes, so a repeated
+ * pair is found even when it arrives as different Matrix instances, and a hit
+ * costs a hash lookup (the fingerprints are memoized on the operands). Cached
+ * results are shared between callers, which is safe because Matrix is immutable.
+ * <p>
+ * The cache holds at most maxBytes of result data and evicts the least recently
+ * used entries to stay under it; a result larger than the whole budget is
+ * returned without being cached. Two threads missing on the same key both
+ * compute it, and the second result replaces the first.
+ */
+public class CachingMatrixMultiplier implements MatrixMultiplier {
+
+    private final MatrixMultiplier delegate;
+    private final long maxBytes;
+
+    private final Object lock = new Object();
+    // Access-ordered: iteration starts at the least recently used entry
+    private final LinkedHashMap<Key, Matrix> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long cachedBytes;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    public CachingMatrixMultiplier(MatrixMultiplier delegate, long maxBytes) {
+        if (maxBytes < 0) {
+            throw new IllegalArgumentException("Cache budget cannot be negative, got " + maxBytes);
+        }
+        this.delegate = delegate;
+        this.maxBytes = maxBytes;
+    }
+
+    @Override
+    public Matrix multiply(Matrix a, Matrix b) {
+        MatrixUtils.validateDimensions(a, b);
+        Key key = new Key(a.fingerprint(), b.fingerprint(), a.getRows(), a.getCols(), b.getCols());
+
+        synchronized (lock) {
+            Matrix cached = entries.get(key);
+            if (cached != null) {
+                hits++;
+                return cached;
+            }
+            misses++;
+        }
+
+        Matrix result = delegate.multiply(a, b);
+        long size = sizeOf(result);
+        if (size <= maxBytes) {
+            synchronized (lock) {
+                Matrix previous = entries.put(key, result);
+                cachedBytes += size - (previous != null ? sizeOf(previous) : 0);
+                evictOverBudget();
+            }
+        }
+        return result;
+    }
+
+    private void evictOverBudget() {
+        Iterator<Matrix> lru = entries.values().iterator();
+        while (cachedBytes > maxBytes && lru.hasNext()) {
+            cachedBytes -= sizeOf(lru.next());
+            lru.remove();
+            evictions++;
+        }
+    }
+
+    private static long sizeOf(Matrix m) {
+        return (long) m.getRows() * m.getCols() * Double.BYTES;
+    }
+
+    public void clear() {
+        synchronized (lock) {
+            entries.clear();
+            cachedBytes = 0;
+        }
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    public long getCachedBytes() {
+        synchronized (lock) {
+            return cachedBytes;
+        }
+    }
+
+    public int getEntryCount() {
+        synchronized (lock) {
+            return entries.size();
+        }
+    }
+
+    public long getHits() {
+        synchronized (lock) {
+            return hits;
+        }
+    }
+
+    public long getMisses() {
+        synchronized (lock) {
+            return misses;
+        }
+    }
+
+    public long getEvictions() {
+        synchronized (lock) {
+            return evictions;
+        }
+    }
+
+    public double getHitRate() {
+        synchronized (lock) {
+            long lookups = hits + misses;
+            return lookups == 0 ? 0.0 : (double) hits / lookups;
+        }
+    }
+
+    @Override
+    public String toString() {
+        synchronized (lock) {
+            return String.format("%d entries, %.1f/%.1f MB, %d hits, %d misses, %d evictions",
+                    entries.size(), cachedBytes / 1e6, maxBytes / 1e6, hits, misses, evictions);
+        }
+    }
+
+    private static final class Key {
+        private final long fingerprintA;
+        private final long fingerprintB;
+        private final int m;
+        private final int n;
+        private final int p;
+
+        Key(long fingerprintA, long fingerprintB, int m, int n, int p) {
+            this.fingerprintA = fingerprintA;
+            this.fingerprintB = fingerprintB;
+            this.m = m;
+            this.n = n;
+            this.p = p;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key other
+                    && fingerprintA == other.fingerprintA && fingerprintB == other.fingerprintB
+                    && m == other.m && n == other.n && p == other.p;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(fingerprintA * 31 + fingerprintB);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package model;
+
+/**
+ * Read access to a dense row-major matrix on the heap: the immutable
+ * {@link Matrix} or the mutable {@link MatrixBuffer}. Operations that only read
+ * their operands, such as {@link ForkJoinMatrixMultiplier#gemm}, accept either.
+ */
+public sealed interface DenseMatrix permits Matrix, MatrixBuffer {
+
+    int getRows();
+
+    int getCols();
+
+    double get(int row, int col);
+}
@@ -0,0 +1,428 @@
+package model;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * SUMMA over TCP. The coordinator arranges its {@link MatrixWorker}s in a
+ * gridRows x gridCols process grid, as square as the worker count allows, and
+ * worker (i, j) owns block (i, j) of A, B and C (see {@link SummaGrid}). A
+ * product runs in three phases:
+ * <ol>
+ * <li>Scatter: every worker is sent its A and B blocks, once, and acknowledges
+ * the session, so no worker runs before every worker is ready for panels.</li>
+ * <li>Run: the workers step through K in panels of at most panelWidth. At each
+ * step the owner of the A panel sends it to the rest of its grid row and the
+ * owner of the B panel to the rest of its grid column, worker to worker, and
+ * every worker adds their product to its C block. The coordinator is not
+ * involved.</li>
+ * <li>Gather: every C block is streamed back into the result.</li>
+ * </ol>
+ * A worker only ever holds its three blocks and a few panels, so the operands
+ * and the product can be larger than any one worker's heap. The coordinator
+ * moves each element of A, B and C over the network exactly once, in bands of
+ * at most {@link #BAND_BYTES} per worker. With {@link MatrixStorage} operands
+ * and result (a {@link MatrixFile}, say), its own heap needs only those bands;
+ * {@link #multiply(Matrix, Matrix)} needs A, B and C on the coordinator's heap
+ * like any other engine. {@link #getLastStats()} splits a run into bytes moved
+ * by the coordinator and between workers, worker compute time, and the time
+ * workers sat waiting for panels.
+ * <p>
+ * Connections persist across products; {@link #close()} ends the sessions. The
+ * workers must be able to reach each other at the addresses given here. One
+ * product runs at a time. A network or worker failure surfaces as an
+ * {@link IOException} (an {@link UncheckedIOException} from the {@link Matrix}
+ * overload) and leaves this multiplier unusable.
+ */
+public final class DistributedMatrixMultiplier implements MatrixMultiplier, AutoCloseable {
+
+    public static final int DEFAULT_PANEL_WIDTH = 256;
+    /** Largest band of rows the coordinator reads, sends or receives at once on one worker link. */
+    public static final int BAND_BYTES = 8 << 20;
+
+    private final int gridRows;
+    private final int gridCols;
+    private final int panelWidth;
+    private final InetSocketAddress[] addresses;
+    private final Link[] links;          // Row-major over the grid
+    private final ExecutorService io = Executors.newVirtualThreadPerTaskExecutor();
+    private volatile Stats lastStats;
+    private volatile boolean broken;
+
+    public DistributedMatrixMultiplier(List<InetSocketAddress> workers) throws IOException {
+        this(workers, DEFAULT_PANEL_WIDTH);
+    }
+
+    public DistributedMatrixMultiplier(List<InetSocketAddress> workers, int panelWidth) throws IOException {
+        if (workers.isEmpty()) {
+            throw new IllegalArgumentException("At least one worker is required");
+        }
+        if (panelWidth < 1) {
+            throw new IllegalArgumentException("Panel width must be a positive integer, got " + panelWidth);
+        }
+        this.gridRows = gridRows(workers.size());
+        this.gridCols = workers.size() / gridRows;
+        this.panelWidth = panelWidth;
+        this.addresses = workers.toArray(new InetSocketAddress[0]);
+        this.links = new Link[workers.size()];
+        try {
+            for (int w = 0; w < links.length; w++) {
+                links[w] = new Link(addresses[w]);
+            }
+        } catch (IOException e) {
+            close();
+            throw e;
+        }
+    }
+
+    // Largest divisor of the worker count not above its square root
+    private static int gridRows(int workers) {
+        int rows = (int) Math.sqrt(workers);
+        while (workers % rows != 0) {
+            rows--;
+        }
+        return rows;
+    }
+
+    public int getGridRows() {
+        return gridRows;
+    }
+
+    public int getGridCols() {
+        return gridCols;
+    }
+
+    /** Statistics of the last completed product, or null before the first. */
+    public Stats getLastStats() {
+        return lastStats;
+    }
+
+    @Override
+    public Matrix multiply(Matrix a, Matrix b) {
+        MatrixUtils.validateDimensions(a, b);
+        double[] result = new double[Math.multiplyExact(a.getRows(), b.getCols())];
+        try {
+            multiply(new HeapStorage(Block.of(a)),
+                    new HeapStorage(Block.of(b)),
+                    new HeapStorage(new Block(result, 0, b.getCols(), a.getRows(), b.getCols())));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return Matrix.adopt(result, a.getRows(), b.getCols());
+    }
+
+    /** Computes a * b into c, which must already have a's rows and b's columns. */
+    public synchronized void multiply(MatrixStorage a, MatrixStorage b, MatrixStorage c) throws IOException {
+        MatrixUtils.validateDimensions(a.getRows(), a.getCols(), b.getRows(), b.getCols());
+        if (c.getRows() != a.getRows() || c.getCols() != b.getCols()) {
+            throw new IllegalArgumentException(String.format("Result must be %dx%d, got %dx%d",
+                    a.getRows(), b.getCols(), c.getRows(), c.getCols()));
+        }
+        if (broken) {
+            throw new IllegalStateException("A previous product failed; this multiplier is no longer usable");
+        }
+        SummaGrid grid = new SummaGrid(gridRows, gridCols, a.getRows(), a.getCols(), b.getCols(), panelWidth);
+        long session = ThreadLocalRandom.current().nextLong();
+
+        long start = System.nanoTime();
+        // Every worker has its blocks before any starts the run, since the run needs its peers
+        Stats[] scattered = onEveryLink((link, w) -> link.scatter(session, grid, w, a, b));
+        Stats[] gathered = onEveryLink((link, w) -> link.runAndGather(grid, w, c));
+
+        Stats total = new Stats(0, 0, 0, 0, 0, 0, 0);
+        for (int w = 0; w < links.length; w++) {
+            total = total.merge(scattered[w]).merge(gathered[w]);
+        }
+        lastStats = new Stats(total.workers, total.bytesSent, total.bytesReceived, total.peerBytes,
+                System.nanoTime() - start, total.computeNanos, total.waitNanos);
+    }
+
+    @FunctionalInterface
+    private interface LinkTask {
+        Stats run(Link link, int index) throws IOException;
+    }
+
+    // Runs the task on every link at once; the first failure closes all of them
+    private Stats[] onEveryLink(LinkTask task) throws IOException {
+        ExecutorCompletionService<Stats> done = new ExecutorCompletionService<>(io);
+        Stats[] results = new Stats[links.length];
+        for (int w = 0; w < links.length; w++) {
+            int index = w;
+            done.submit(() -> results[index] = task.run(links[index], index));
+        }
+        for (int w = 0; w < links.length; w++) {
+            try {
+                done.take().get();
+            } catch (InterruptedException e) {
+                abort();
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for workers", e);
+            } catch (ExecutionException e) {
+                abort();
+                if (e.getCause() instanceof IOException cause) {
+                    throw cause;
+                }
+                throw new IllegalStateException("Worker link failed", e.getCause());
+            }
+        }
+        return results;
+    }
+
+    // Drops every connection, which also stops the links still running
+    private void abort() {
+        broken = true;
+        for (Link link : links) {
+            link.abort();
+        }
+    }
+
+    /** Ends every worker session; the workers keep listening for new coordinators. */
+    @Override
+    public void close() {
+        for (Link link : links) {
+            if (link != null) {
+                link.close();
+            }
+        }
+        io.close();
+    }
+
+    // Rows of a band of the given width that fit in BAND_BYTES, at least one
+    private static int bandRows(int cols) {
+        return (int) Math.max(1, BAND_BYTES / Math.max(1L, (long) cols * Double.BYTES));
+    }
+
+    // One worker connection, used by one product at a time
+    private final class Link {
+        private final Socket socket;
+        private final DataInputStream in;
+        private final DataOutputStream out;
+        private final byte[] scratch = new byte[WireFormat.CHUNK_BYTES];
+
+        Link(InetSocketAddress address) throws IOException {
+            this.socket = new Socket(address.getAddress(), address.getPort());
+            socket.setTcpNoDelay(true);
+            this.in = new DataInputStream(new BufferedInputStream(socket.getInputStream(), WireFormat.CHUNK_BYTES));
+            this.out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream(), WireFormat.CHUNK_BYTES));
+        }
+
+        // Describes the grid to worker index and streams it its A and B blocks
+        Stats scatter(long session, SummaGrid grid, int index, MatrixStorage a, MatrixStorage b) throws IOException {
+            int i = index / grid.gridCols;
+            int j = index % grid.gridCols;
+            out.writeByte(WireFormat.SETUP);
+            out.writeLong(session);
+            out.writeInt(grid.gridRows);
+            out.writeInt(grid.gridCols);
+            out.writeInt(index);
+            out.writeInt(grid.m);
+            out.writeInt(grid.n);
+            out.writeInt(grid.p);
+            out.writeInt(grid.panelWidth);
+            long sent = 1 + Long.BYTES + 7 * Integer.BYTES;
+            for (InetSocketAddress address : addresses) {
+                out.writeUTF(address.getHostString());
+                out.writeInt(address.getPort());
+                sent += 2 + address.getHostString().length() + Integer.BYTES;
+            }
+            sent += sendBlock(WireFormat.LOAD_A, a, grid.rowStart(i), grid.rowStart(i + 1),
+                    grid.aDepthStart(j), grid.aDepthStart(j + 1));
+            sent += sendBlock(WireFormat.LOAD_B, b, grid.bDepthStart(i), grid.bDepthStart(i + 1),
+                    grid.colStart(j), grid.colStart(j + 1));
+            out.flush();
+            // No worker may run, and send panels, before every worker has set the session up
+            if (in.readLong() != session) {
+                throw new IOException("Worker " + index + " set up a different session");
+            }
+            return new Stats(0, sent, Long.BYTES, 0, 0, 0, 0);
+        }
+
+        private long sendBlock(byte op, MatrixStorage source, int row0, int row1, int col0, int col1)
+                throws IOException {
+            int rows = row1 - row0;
+            int cols = col1 - col0;
+            if (rows == 0 || cols == 0) {
+                return 0;
+            }
+            int band = Math.min(rows, bandRows(cols));
+            double[] buffer = new double[Math.multiplyExact(band, cols)];
+            long sent = 0;
+            for (int first = 0; first < rows; first += band) {
+                int count = Math.min(band, rows - first);
+                source.readTile(row0 + first, col0, count, cols, buffer, 0, cols);
+                out.writeByte(op);
+                out.writeInt(first);
+                out.writeInt(count);
+                sent += 1 + 2 * Integer.BYTES + WireFormat.writeTile(out, new Block(buffer, 0, cols, count, cols), scratch);
+            }
+            return sent;
+        }
+
+        // Starts the worker's SUMMA run, waits for it, then streams its C block into c
+        Stats runAndGather(SummaGrid grid, int index, MatrixStorage c) throws IOException {
+            int i = index / grid.gridCols;
+            int j = index % grid.gridCols;
+            int row0 = grid.rowStart(i);
+            int col0 = grid.colStart(j);
+            int rows = grid.rowStart(i + 1) - row0;
+            int cols = grid.colStart(j + 1) - col0;
+            int band = bandRows(cols);
+
+            out.writeByte(WireFormat.RUN);
+            out.writeByte(WireFormat.GATHER);
+            out.writeInt(band);
+            out.flush();
+            long computeNanos = in.readLong();
+            long waitNanos = in.readLong();
+            long peerBytes = in.readLong();
+            long received = 3L * Long.BYTES;
+
+            double[] buffer = new double[Math.multiplyExact(Math.min(band, rows), cols)];
+            for (int first = 0; first < rows; first += band) {
+                int count = Math.min(band, rows - first);
+                WireFormat.readTile(in, scratch, new Block(buffer, 0, cols, count, cols));
+                c.writeTile(row0 + first, col0, count, cols, buffer, 0, cols);
+                received += 2 * Integer.BYTES + (long) count * cols * Double.BYTES;
+            }
+            int owner = rows > 0 && cols > 0 ? 1 : 0;
+            return new Stats(owner, 2 + Integer.BYTES, received, peerBytes, 0, computeNanos, waitNanos);
+        }
+
+        void abort() {
+            try {
+                socket.close();
+            } catch (IOException _) {
+            }
+        }
+
+        void close() {
+            try (socket) {
+                out.writeByte(WireFormat.SHUTDOWN);
+                out.flush();
+            } catch (IOException _) {
+                // Already gone
+            }
+        }
+    }
+
+    // Lets heap matrices take the same band-streaming path as storage
+    private static final class HeapStorage implements MatrixStorage {
+        private final Block block;
+
+        HeapStorage(Block block) {
+            this.block = block;
+        }
+
+        @Override
+        public int getRows() {
+            return block.rows;
+        }
+
+        @Override
+        public int getCols() {
+            return block.cols;
+        }
+
+        @Override
+        public void readTile(int row, int col, int tileRows, int tileCols,
+                             double[] dst, int dstOffset, int dstStride) {
+            for (int i = 0; i < tileRows; i++) {
+                System.arraycopy(block.data, block.index(row + i, col), dst, dstOffset + i * dstStride, tileCols);
+            }
+        }
+
+        @Override
+        public void writeTile(int row, int col, int tileRows, int tileCols,
+                              double[] src, int srcOffset, int srcStride) {
+            for (int i = 0; i < tileRows; i++) {
+                System.arraycopy(src, srcOffset + i * srcStride, block.data, block.index(row + i, col), tileCols);
+            }
+        }
+    }
+
+    /**
+     * One product's cost. Compute and wait times are the maxima over the workers,
+     * the slowest block setting the pace; wait is the panel traffic the pipeline
+     * failed to hide behind computation.
+     */
+    public static final class Stats {
+        private final int workers;
+        private final long bytesSent;
+        private final long bytesReceived;
+        private final long peerBytes;
+        private final long elapsedNanos;
+        private final long computeNanos;
+        private final long waitNanos;
+
+        Stats(int workers, long bytesSent, long bytesReceived, long peerBytes,
+              long elapsedNanos, long computeNanos, long waitNanos) {
+            this.workers = workers;
+            this.bytesSent = bytesSent;
+            this.bytesReceived = bytesReceived;
+            this.peerBytes = peerBytes;
+            this.elapsedNanos = elapsedNanos;
+            this.computeNanos = computeNanos;
+            this.waitNanos = waitNanos;
+        }
+
+        Stats merge(Stats other) {
+            return new Stats(workers + other.workers, bytesSent + other.bytesSent,
+                    bytesReceived + other.bytesReceived, peerBytes + other.peerBytes,
+                    Math.max(elapsedNanos, other.elapsedNanos),
+                    Math.max(computeNanos, other.computeNanos), Math.max(waitNanos, other.waitNanos));
+        }
+
+        /** Workers that owned a non-empty block of C. */
+        public int getWorkers() {
+            return workers;
+        }
+
+        /** Bytes the coordinator sent: setup and the A and B blocks. */
+        public long getBytesSent() {
+            return bytesSent;
+        }
+
+        /** Bytes the coordinator received: the C blocks. */
+        public long getBytesReceived() {
+            return bytesReceived;
+        }
+
+        /** Bytes the workers sent each other: the panel broadcasts. */
+        public long getPeerBytes() {
+            return peerBytes;
+        }
+
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+
+        public long getComputeNanos() {
+            return computeNanos;
+        }
+
+        public long getWaitNanos() {
+            return waitNanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d workers, %.2f ms, %.1f MB sent, %.1f MB received, %.1f MB between workers, "
+                            + "worker compute %.2f ms, worker wait %.2f ms",
+                    workers, elapsedNanos / 1e6, bytesSent / 1e6, bytesReceived / 1e6, peerBytes / 1e6,
+                    computeNanos / 1e6, waitNanos / 1e6);
+        }
+    }
+}
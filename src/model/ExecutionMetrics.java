@@ -0,0 +1,199 @@
+package model;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-run instrumentation for the fork/join engine: pass one to
+ * {@link ForkJoinMatrixMultiplier#multiply(Matrix, Matrix, ExecutionMetrics)} and
+ * read the statistics once it returns. A later run resets them.
+ * <p>
+ * Leaves record into striped counters ({@link LongAdder}), so workers never
+ * contend on a shared cache line. Progress is pushed to the listener at most
+ * once per reporting interval, by whichever leaf first notices the interval has
+ * passed, plus once more when the run completes. Leaf times go into power-of-two
+ * nanosecond buckets, so percentiles are upper bounds within a factor of two.
+ */
+public class ExecutionMetrics {
+
+    public static final long DEFAULT_REPORT_INTERVAL_MS = 50;
+
+    private static final int BUCKETS = 64;
+
+    /** Receives throttled progress updates, from whichever thread finished the leaf. */
+    @FunctionalInterface
+    public interface ProgressListener {
+        void onProgress(long completedLeaves, double fractionDone);
+    }
+
+    private final long reportIntervalNanos;
+    private final ProgressListener listener;
+
+    private final LongAdder leaves = new LongAdder();
+    private final LongAdder leafNanos = new LongAdder();
+    private final LongAdder workDone = new LongAdder();
+    private final LongAdder[] leafHistogram = new LongAdder[BUCKETS];
+    private final AtomicLong lastReport = new AtomicLong();
+
+    private ForkJoinPool pool;
+    private long totalWork;
+    private long startNanos;
+    private long startSteals;
+    private long startAllocated;
+    private long elapsedNanos;
+    private long steals;
+    private long allocatedBytes;
+
+    /** Statistics only, no progress reporting. */
+    public ExecutionMetrics() {
+        this(DEFAULT_REPORT_INTERVAL_MS, null);
+    }
+
+    /**
+     * @param reportIntervalMillis minimum time between two progress updates
+     * @param listener             may be null
+     */
+    public ExecutionMetrics(long reportIntervalMillis, ProgressListener listener) {
+        if (reportIntervalMillis < 0) {
+            throw new IllegalArgumentException("Report interval cannot be negative, got " + reportIntervalMillis);
+        }
+        this.reportIntervalNanos = reportIntervalMillis * 1_000_000;
+        this.listener = listener;
+        for (int i = 0; i < BUCKETS; i++) {
+            leafHistogram[i] = new LongAdder();
+        }
+    }
+
+    // Called by the engine before the first task is submitted
+    void start(ForkJoinPool pool, long totalWork) {
+        leaves.reset();
+        leafNanos.reset();
+        workDone.reset();
+        for (LongAdder bucket : leafHistogram) {
+            bucket.reset();
+        }
+        this.pool = pool;
+        this.totalWork = totalWork;
+        this.startSteals = pool.getStealCount();
+        this.startAllocated = allocatedBytesSoFar();
+        this.startNanos = System.nanoTime();
+        lastReport.set(startNanos);
+    }
+
+    // Called by each leaf when it finishes; work is its multiply-add count
+    void recordLeaf(long leafStartNanos, long work) {
+        long now = System.nanoTime();
+        long nanos = now - leafStartNanos;
+        leaves.increment();
+        leafNanos.add(nanos);
+        workDone.add(work);
+        leafHistogram[63 - Long.numberOfLeadingZeros(Math.max(1, nanos))].increment();
+
+        if (listener != null) {
+            long last = lastReport.get();
+            if (now - last >= reportIntervalNanos && lastReport.compareAndSet(last, now)) {
+                report();
+            }
+        }
+    }
+
+    // Called by the engine after the root task has joined
+    void finish() {
+        elapsedNanos = System.nanoTime() - startNanos;
+        steals = pool.getStealCount() - startSteals;
+        long allocated = allocatedBytesSoFar();
+        allocatedBytes = allocated < 0 || startAllocated < 0 ? -1 : allocated - startAllocated;
+        if (listener != null) {
+            report();
+        }
+    }
+
+    private void report() {
+        double fraction = totalWork == 0 ? 1.0 : Math.min(1.0, (double) workDone.sum() / totalWork);
+        try {
+            listener.onProgress(leaves.sum(), fraction);
+        } catch (Exception _) {
+        }
+    }
+
+    // JVM-wide bytes allocated by all threads, or -1 where the JVM does not track it
+    private static long allocatedBytesSoFar() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (threads instanceof com.sun.management.ThreadMXBean hotspot && hotspot.isThreadAllocatedMemoryEnabled()) {
+            return hotspot.getTotalThreadAllocatedBytes();
+        }
+        return -1;
+    }
+
+    public long getLeafCount() {
+        return leaves.sum();
+    }
+
+    /** Leaves plus the splits above them; every split forks exactly two subtasks. */
+    public long getTaskCount() {
+        long leafCount = leaves.sum();
+        return leafCount == 0 ? 0 : 2 * leafCount - 1;
+    }
+
+    /** Steals in the pool during the run; includes other work sharing the pool. */
+    public long getStealCount() {
+        return steals;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /** Total time spent inside leaves, summed over all workers. */
+    public long getLeafNanos() {
+        return leafNanos.sum();
+    }
+
+    public double getGflops() {
+        return elapsedNanos == 0 ? 0.0 : 2.0 * totalWork / elapsedNanos;
+    }
+
+    /** Bytes allocated JVM-wide during the run, or -1 if unavailable. */
+    public long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    /** Leaf counts per bucket: bucket b holds leaves that took [2^b, 2^(b+1)) ns. */
+    public long[] getLeafTimeHistogram() {
+        long[] counts = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = leafHistogram[i].sum();
+        }
+        return counts;
+    }
+
+    /** Upper bound of the bucket holding the given percentile (0-100) of leaf times, in ns. */
+    public long getLeafTimePercentile(double percentile) {
+        long[] counts = getLeafTimeHistogram();
+        long total = 0;
+        for (long c : counts) {
+            total += c;
+        }
+        long rank = (long) Math.ceil(total * percentile / 100.0);
+        long seen = 0;
+        for (int b = 0; b < BUCKETS; b++) {
+            seen += counts[b];
+            if (seen >= rank && seen > 0) {
+                return b >= 62 ? Long.MAX_VALUE : 1L << (b + 1);
+            }
+        }
+        return 0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%.2f ms, %.2f GFLOP/s, %d tasks (%d leaves), %d steals, "
+                        + "leaf p50 <= %d us, p99 <= %d us, %.1f MB allocated",
+                elapsedNanos / 1e6, getGflops(), getTaskCount(), getLeafCount(), steals,
+                getLeafTimePercentile(50) / 1000, getLeafTimePercentile(99) / 1000,
+                allocatedBytes / 1e6);
+    }
+}
@@ -0,0 +1,138 @@
+package model;
+
+/**
+ * Single-precision version of {@link BlockedKernel}: same panel packing and
+ * blocking, with float operands. The product can accumulate either in float or,
+ * for long inner dimensions, in a double buffer that is rounded once at the end.
+ * Default panels are twice as wide as the double kernel's since they hold
+ * half-size elements.
+ */
+public class FloatKernel {
+
+    public static final int DEFAULT_BLOCK_K = 256;
+    public static final int DEFAULT_BLOCK_N = 256;
+
+    private final int blockK;
+    private final int blockN;
+
+    public FloatKernel() {
+        this(DEFAULT_BLOCK_K, DEFAULT_BLOCK_N);
+    }
+
+    public FloatKernel(int blockK, int blockN) {
+        if (blockK < 1 || blockN < 1) {
+            throw new IllegalArgumentException(
+                    String.format("Block sizes must be positive (blockK=%d, blockN=%d)", blockK, blockN)
+            );
+        }
+        this.blockK = blockK;
+        this.blockN = blockN;
+    }
+
+    public int getBlockK() {
+        return blockK;
+    }
+
+    public int getBlockN() {
+        return blockN;
+    }
+
+    /** Same layout as {@link BlockedKernel#pack}: column panels of blockN, each row-major. */
+    Panels pack(FloatMatrix b) {
+        int depth = b.getRows();
+        int cols = b.getCols();
+        float[] src = b.raw();
+        float[] packed = new float[depth * cols];
+
+        for (int j0 = 0; j0 < cols; j0 += blockN) {
+            int width = Math.min(blockN, cols - j0);
+            int base = j0 * depth;
+            for (int k = 0; k < depth; k++) {
+                System.arraycopy(src, k * cols + j0, packed, base + k * width, width);
+            }
+        }
+        return new Panels(packed, depth, cols, blockN);
+    }
+
+    /** C += A * B over the given ranges, accumulating in float; C addressed as in BlockedKernel. */
+    void multiply(FloatMatrix a, Panels b, float[] c, int cOffset, int cStride,
+                  int rowStart, int rowEnd, int colStart, int colEnd, int kStart, int kEnd) {
+        float[] aData = a.raw();
+        int n = a.stride();
+        float[] bData = b.data;
+
+        for (int j0 = colStart / b.width * b.width; j0 < colEnd; j0 += b.width) {
+            int width = Math.min(b.width, b.cols - j0);
+            int from = Math.max(colStart, j0);
+            int length = Math.min(colEnd, j0 + width) - from;
+            int panel = j0 * b.depth + (from - j0);
+
+            for (int k0 = kStart; k0 < kEnd; k0 += blockK) {
+                int k1 = Math.min(kEnd, k0 + blockK);
+                for (int i = rowStart; i < rowEnd; i++) {
+                    int aRow = i * n;
+                    int cRow = cOffset + (i - rowStart) * cStride + (from - colStart);
+                    for (int k = k0; k < k1; k++) {
+                        float aik = aData[aRow + k];
+                        int bRow = panel + k * width;
+                        for (int j = 0; j < length; j++) {
+                            c[cRow + j] += aik * bData[bRow + j];
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /** Same as the float version, but every product is accumulated in double. */
+    void multiply(FloatMatrix a, Panels b, double[] c, int cOffset, int cStride,
+                  int rowStart, int rowEnd, int colStart, int colEnd, int kStart, int kEnd) {
+        float[] aData = a.raw();
+        int n = a.stride();
+        float[] bData = b.data;
+
+        for (int j0 = colStart / b.width * b.width; j0 < colEnd; j0 += b.width) {
+            int width = Math.min(b.width, b.cols - j0);
+            int from = Math.max(colStart, j0);
+            int length = Math.min(colEnd, j0 + width) - from;
+            int panel = j0 * b.depth + (from - j0);
+
+            for (int k0 = kStart; k0 < kEnd; k0 += blockK) {
+                int k1 = Math.min(kEnd, k0 + blockK);
+                for (int i = rowStart; i < rowEnd; i++) {
+                    int aRow = i * n;
+                    int cRow = cOffset + (i - rowStart) * cStride + (from - colStart);
+                    for (int k = k0; k < k1; k++) {
+                        double aik = aData[aRow + k];
+                        int bRow = panel + k * width;
+                        for (int j = 0; j < length; j++) {
+                            c[cRow + j] += aik * bData[bRow + j];
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    static float[] narrow(double[] wide) {
+        float[] result = new float[wide.length];
+        for (int i = 0; i < wide.length; i++) {
+            result[i] = (float) wide[i];
+        }
+        return result;
+    }
+
+    static final class Panels {
+        final float[] data;
+        final int depth;
+        final int cols;
+        final int width;
+
+        Panels(float[] data, int depth, int cols, int width) {
+            this.data = data;
+            this.depth = depth;
+            this.cols = cols;
+            this.width = width;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package model;
+
+/**
+ * Single-precision counterpart of {@link Matrix}: immutable, row-major in one
+ * contiguous float[]. Half the bytes per element of Matrix, so twice the
+ * elements per cache line and per byte of memory bandwidth.
+ */
+public class FloatMatrix {
+    // Row-major: element (row, col) lives at data[row * cols + col]
+    private final float[] data;
+    private final int rows;
+    private final int cols;
+
+    public FloatMatrix(float[][] data) {
+        if (data == null || data.length == 0 || data[0].length == 0) {
+            throw new IllegalArgumentException("Matrix cannot be null or empty.");
+        }
+
+        // Check for jagged arrays
+        int expectedCols = data[0].length;
+        for (int i = 1; i < data.length; i++) {
+            if (data[i].length != expectedCols) {
+                throw new IllegalArgumentException(
+                        "Matrix must be rectangular!"
+                );
+            }
+        }
+
+        this.rows = data.length;
+        this.cols = data[0].length;
+        this.data = new float[Math.multiplyExact(rows, cols)];
+        for (int i = 0; i < rows; i++) {
+            System.arraycopy(data[i], 0, this.data, i * cols, cols);
+        }
+    }
+
+    private FloatMatrix(float[] data, int rows, int cols) {
+        this.data = data;
+        this.rows = rows;
+        this.cols = cols;
+    }
+
+    /**
+     * Wraps a row-major buffer without copying it; see {@link Matrix#adopt}.
+     */
+    static FloatMatrix adopt(float[] data, int rows, int cols) {
+        if (rows <= 0 || cols <= 0) {
+            throw new IllegalArgumentException("Matrix cannot be null or empty.");
+        }
+        if (data == null || data.length != (long) rows * cols) {
+            throw new IllegalArgumentException(
+                    String.format("Buffer of length %d does not hold a %dx%d matrix",
+                            data == null ? 0 : data.length, rows, cols)
+            );
+        }
+        return new FloatMatrix(data, rows, cols);
+    }
+
+    /** Rounds every element to the nearest float. */
+    public static FloatMatrix fromMatrix(Matrix m) {
+        double[] src = m.raw();
+        float[] data = new float[src.length];
+        for (int i = 0; i < src.length; i++) {
+            data[i] = (float) src[i];
+        }
+        return new FloatMatrix(data, m.getRows(), m.getCols());
+    }
+
+    public Matrix toMatrix() {
+        double[] wide = new double[data.length];
+        for (int i = 0; i < data.length; i++) {
+            wide[i] = data[i];
+        }
+        return Matrix.adopt(wide, rows, cols);
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getCols() {
+        return cols;
+    }
+
+    public float get(int row, int col) {
+        if (row < 0 || row >= rows || col < 0 || col >= cols) {
+            throw new IndexOutOfBoundsException(
+                    String.format("Invalid indices (%d, %d) for matrix of size %dx%d",
+                            row, col, rows, cols)
+            );
+        }
+        return data[row * cols + col];
+    }
+
+    // Kernel access: the backing buffer itself, must be treated as read-only
+    float[] raw() {
+        return data;
+    }
+
+    int stride() {
+        return cols;
+    }
+}
@@ -0,0 +1,5 @@
+package model;
+
+public interface FloatMatrixMultiplier {
+    FloatMatrix multiply(FloatMatrix a, FloatMatrix b);
+}
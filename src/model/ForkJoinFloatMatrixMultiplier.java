@@ -0,0 +1,124 @@
+package model;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Single-precision fork/join multiplier. Uses the same {@link TileTask}
+ * decomposition and threshold semantics as {@link ForkJoinMatrixMultiplier},
+ * with {@link FloatKernel} leaves.
+ */
+public class ForkJoinFloatMatrixMultiplier implements FloatMatrixMultiplier {
+
+    private final int threshold;
+    private final FloatKernel kernel;
+    private final boolean accumulateInDouble;
+    private final ForkJoinPool pool;
+
+    public ForkJoinFloatMatrixMultiplier(int threshold) {
+        this(threshold, new FloatKernel(), false, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param accumulateInDouble sum products (and split-K partials) in double
+     *                           and round the result to float once at the end
+     */
+    public ForkJoinFloatMatrixMultiplier(int threshold, FloatKernel kernel, boolean accumulateInDouble,
+                                         ForkJoinPool pool) {
+        if (threshold < 1) {
+            throw new IllegalArgumentException("Threshold must be a positive integer, got " + threshold);
+        }
+        this.threshold = threshold;
+        this.kernel = kernel;
+        this.accumulateInDouble = accumulateInDouble;
+        this.pool = pool;
+    }
+
+    public int getThreshold() {
+        return threshold;
+    }
+
+    @Override
+    public FloatMatrix multiply(FloatMatrix a, FloatMatrix b) {
+        MatrixUtils.validateDimensions(a.getRows(), a.getCols(), b.getRows(), b.getCols());
+
+        int m = a.getRows();
+        int n = a.getCols();
+        int p = b.getCols();
+        FloatKernel.Panels packedB = kernel.pack(b);
+
+        if (accumulateInDouble) {
+            double[] wide = new double[m * p];
+            pool.invoke(new TileTask<>(new WideOps(kernel, a, packedB), threshold, kernel.getBlockN(),
+                    wide, 0, p, m, p, n));
+            return FloatMatrix.adopt(FloatKernel.narrow(wide), m, p);
+        }
+
+        float[] result = new float[m * p];
+        pool.invoke(new TileTask<>(new FloatOps(kernel, a, packedB), threshold, kernel.getBlockN(),
+                result, 0, p, m, p, n));
+        return FloatMatrix.adopt(result, m, p);
+    }
+
+    private static final class FloatOps implements TileTask.Ops<float[]> {
+
+        private final FloatKernel kernel;
+        private final FloatMatrix a;
+        private final FloatKernel.Panels b;
+
+        FloatOps(FloatKernel kernel, FloatMatrix a, FloatKernel.Panels b) {
+            this.kernel = kernel;
+            this.a = a;
+            this.b = b;
+        }
+
+        @Override
+        public void leaf(float[] out, int offset, int stride,
+                         int startRow, int endRow, int startCol, int endCol, int startK, int endK) {
+            kernel.multiply(a, b, out, offset, stride, startRow, endRow, startCol, endCol, startK, endK);
+        }
+
+        @Override
+        public float[] allocate(int length) {
+            return new float[length];
+        }
+
+        @Override
+        public void add(float[] target, int offset, int stride, float[] partial, int rows, int cols) {
+            for (int i = 0; i < rows; i++) {
+                int row = offset + i * stride;
+                for (int j = 0; j < cols; j++) {
+                    target[row + j] += partial[i * cols + j];
+                }
+            }
+        }
+    }
+
+    private static final class WideOps implements TileTask.Ops<double[]> {
+
+        private final FloatKernel kernel;
+        private final FloatMatrix a;
+        private final FloatKernel.Panels b;
+
+        WideOps(FloatKernel kernel, FloatMatrix a, FloatKernel.Panels b) {
+            this.kernel = kernel;
+            this.a = a;
+            this.b = b;
+        }
+
+        @Override
+        public void leaf(double[] out, int offset, int stride,
+                         int startRow, int endRow, int startCol, int endCol, int startK, int endK) {
+            kernel.multiply(a, b, out, offset, stride, startRow, endRow, startCol, endCol, startK, endK);
+        }
+
+        @Override
+        public double[] allocate(int length) {
+            return new double[length];
+        }
+
+        @Override
+        public void add(double[] target, int offset, int stride, double[] partial, int rows, int cols) {
+            TileTask.addTile(target, offset, stride, partial, rows, cols);
+        }
+    }
+}
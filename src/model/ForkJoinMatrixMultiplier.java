@@ -1,104 +1,316 @@
 package model;
 
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ForkJoinPool;
-import java.util.concurrent.RecursiveAction;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.IntConsumer;
 
+/**
+ * Fork/Join multiplier that recursively splits the (rows x cols x depth) iteration
+ * space of the product. The threshold is the edge of a leaf's output tile: a task
+ * is computed directly once its tile covers at most threshold² result elements,
+ * or once its whole workload is below threshold³ multiply-adds.
+ * <p>
+ * The larger output dimension is split first, so short-wide and tall-narrow
+ * results parallelize just like square ones. When the output tile is smaller
+ * than its inner dimension (dot-product-like shapes) the K range is split
+ * instead, one half accumulating into a private buffer that is added back
+ * after the join. The decomposition itself lives in {@link TileTask}.
+ */
 public class ForkJoinMatrixMultiplier implements MatrixMultiplier {
 
+    /**
+     * Post-processing fused into the product's store: rewrites one finished output
+     * tile (rows [startRow, endRow), cols [startCol, endCol), element (i, j) at
+     * offset + (i - startRow) * stride + (j - startCol)). Runs concurrently on
+     * disjoint tiles.
+     */
+    interface Epilogue {
+        void apply(double[] out, int offset, int stride, int startRow, int endRow, int startCol, int endCol);
+    }
+
     private final int threshold;
+    private final BlockedKernel kernel;
     private final ForkJoinPool pool;
 
     public ForkJoinMatrixMultiplier(int threshold) {
+        this(threshold, new BlockedKernel());
+    }
+
+    public ForkJoinMatrixMultiplier(int threshold, BlockedKernel kernel) {
+        this(threshold, kernel, ForkJoinPool.commonPool());
+    }
+
+    public ForkJoinMatrixMultiplier(int threshold, ForkJoinPool pool) {
+        this(threshold, new BlockedKernel(), pool);
+    }
+
+    /**
+     * @param pool pool every multiplication runs in; pass a dedicated
+     *             {@code new ForkJoinPool(n)} to cap parallelism or to keep the
+     *             work away from the common pool used by parallel streams
+     */
+    public ForkJoinMatrixMultiplier(int threshold, BlockedKernel kernel, ForkJoinPool pool) {
+        if (threshold < 1) {
+            throw new IllegalArgumentException("Threshold must be a positive integer, got " + threshold);
+        }
         this.threshold = threshold;
-        this.pool = ForkJoinPool.commonPool();
+        this.kernel = kernel;
+        this.pool = pool;
+    }
+
+    public int getThreshold() {
+        return threshold;
+    }
+
+    public ForkJoinPool getPool() {
+        return pool;
     }
 
     @Override
     public Matrix multiply(Matrix a, Matrix b) {
-        return multiply(a, b, null);
+        return multiply(a, b, (ExecutionMetrics) null);
     }
 
+    /**
+     * @param progressCallback receives the number of leaf tiles finished so far,
+     *                         at most every {@link ExecutionMetrics#DEFAULT_REPORT_INTERVAL_MS}
+     *                         ms and once at the end; may be null
+     */
     public Matrix multiply(Matrix a, Matrix b, IntConsumer progressCallback) {
+        ExecutionMetrics metrics = progressCallback == null ? null
+                : new ExecutionMetrics(ExecutionMetrics.DEFAULT_REPORT_INTERVAL_MS,
+                        (leaves, _) -> progressCallback.accept((int) leaves));
+        return multiply(a, b, metrics);
+    }
+
+    /**
+     * @param metrics records this run's statistics and reports its progress, may be null
+     */
+    public Matrix multiply(Matrix a, Matrix b, ExecutionMetrics metrics) {
         MatrixUtils.validateDimensions(a, b);
+        return product(a, b, metrics, null);
+    }
 
+    public CompletableFuture<Matrix> multiplyAsync(Matrix a, Matrix b) {
+        return multiplyAsync(a, b, null, null);
+    }
+
+    /**
+     * Starts the product in the pool and returns at once. Cancelling the future,
+     * or reaching the timeout (the future then fails with a TimeoutException),
+     * stops the run cooperatively: tasks that have not started return at once and
+     * running leaves stop after their current blockK-deep slab, so the workers
+     * are released within about one slab's time.
+     *
+     * @param timeout may be null for no deadline
+     * @param metrics may be null
+     */
+    public CompletableFuture<Matrix> multiplyAsync(Matrix a, Matrix b, Duration timeout, ExecutionMetrics metrics) {
+        MatrixUtils.validateDimensions(a, b);
+
+        AtomicBoolean cancelled = new AtomicBoolean();
+        CompletableFuture<Matrix> future = new CompletableFuture<>();
+        // Whatever completes the future first (cancel, timeout or the result) stops the tiles
+        future.whenComplete((_, _) -> cancelled.set(true));
+        pool.execute(() -> {
+            try {
+                Matrix result = product(a, b, metrics, cancelled);
+                if (!cancelled.get()) {
+                    future.complete(result);
+                }
+            } catch (Throwable t) {
+                future.completeExceptionally(t);
+            }
+        });
+        if (timeout != null) {
+            future.orTimeout(timeout.toNanos(), TimeUnit.NANOSECONDS);
+        }
+        return future;
+    }
+
+    // The product itself; when cancelled is set part way, the returned matrix is incomplete
+    private Matrix product(Matrix a, Matrix b, ExecutionMetrics metrics, AtomicBoolean cancelled) {
         int m = a.getRows();
+        int n = a.getCols();
         int p = b.getCols();
 
-        double[][] result = new double[m][p];
+        // Started before the result and packing buffers so they count as this run's allocation
+        if (metrics != null) {
+            metrics.start(pool, (long) m * n * p);
+        }
+        double[] result = new double[m * p];
+        // Packed once here, then shared read-only by every leaf
+        BlockedKernel.Panels packedB = kernel.pack(b);
 
-        AtomicInteger completedRows = new AtomicInteger(0);
+        TileOps ops = new TileOps(kernel, Block.of(a), packedB, 1.0, null, metrics, cancelled);
+        run(new TileTask<>(ops, threshold, kernel.getBlockN(), result, 0, p, m, p, n)); // موجوده في أخر سليدز شرحناها
+        if (metrics != null) {
+            metrics.finish();
+        }
 
-        MultiplyTask task = new MultiplyTask(a, b, result, 0, m, completedRows, progressCallback);
-        pool.invoke(task); // موجوده في أخر سليدز شرحناها
+        return Matrix.adopt(result, m, p);
+    }
 
-        return new Matrix(result);
+    /**
+     * Accumulates a * b into the out region starting at outOffset with row stride
+     * outStride. Used by engines that build on this one for their leaf products;
+     * when called from inside the pool the task runs in the caller's worker.
+     */
+    void multiplyInto(Block a, Block b, double[] out, int outOffset, int outStride) {
+        TileOps ops = new TileOps(kernel, a, kernel.pack(b), 1.0, null, null, null);
+        run(new TileTask<>(ops, threshold, kernel.getBlockN(),
+                out, outOffset, outStride, a.rows, b.cols, a.cols));
     }
 
-    private class MultiplyTask extends RecursiveAction {
+    /**
+     * Accumulates alpha · a · b into the zeroed out (row stride b.cols), handing
+     * every output tile to the epilogue as soon as it is complete, so
+     * post-processing reads and writes each tile while it is still in cache
+     * instead of streaming the whole result through memory again.
+     */
+    void multiplyInto(Block a, Block b, double alpha, double[] out, Epilogue epilogue) {
+        TileOps ops = new TileOps(kernel, a, kernel.pack(b, alpha), 1.0, epilogue, null, null);
+        run(new TileTask<>(ops, threshold, kernel.getBlockN(), out, 0, b.cols, a.rows, b.cols, a.cols));
+    }
 
-        private final Matrix a;
-        private final Matrix b;
-        private final double[][] result;
-        private final int startRow;       // Inclusive (المعيد قال عليها)
-        private final int endRow;         // Exclusive (المعيد قال عليها)
-        private final AtomicInteger completedRows;
-        private final IntConsumer progressCallback;
+    /**
+     * BLAS-style GEMM: C = alpha · op(A) · op(B) + beta · C, computed in place.
+     * op(X) is X, or X transposed when its flag is set; transposed operands are
+     * read through strided views and never copied. As in BLAS, beta = 0 ignores
+     * the previous contents of C (even NaNs) and alpha = 0 skips the product.
+     * Each leaf applies beta to its own C tile just before accumulating into it,
+     * and alpha is folded into the packed copy of op(B).
+     *
+     * @param c output, op(A).rows x op(B).cols; must not be one of the operands
+     */
+    public void gemm(boolean transposeA, boolean transposeB, double alpha, DenseMatrix a, DenseMatrix b,
+                     double beta, MatrixBuffer c) {
+        gemm(transposeA, transposeB, alpha, a, b, beta, c, null);
+    }
 
-        public MultiplyTask(Matrix a, Matrix b, double[][] result,
-                            int startRow, int endRow,
-                            AtomicInteger completedRows,
-                            IntConsumer progressCallback) {
+    /**
+     * As above, packing op(B) into packBuffer when it holds at least op(B)'s
+     * element count, so callers looping over same-sized products allocate nothing.
+     */
+    void gemm(boolean transposeA, boolean transposeB, double alpha, DenseMatrix a, DenseMatrix b,
+              double beta, MatrixBuffer c, double[] packBuffer) {
+        Block opA = transposeA ? Block.of(a).transpose() : Block.of(a);
+        Block opB = transposeB ? Block.of(b).transpose() : Block.of(b);
+        MatrixUtils.validateDimensions(opA.rows, opA.cols, opB.rows, opB.cols);
+        if (c.getRows() != opA.rows || c.getCols() != opB.cols) {
+            throw new IllegalArgumentException(
+                    String.format("Output is %dx%d, expected %dx%d",
+                            c.getRows(), c.getCols(), opA.rows, opB.cols)
+            );
+        }
+        if (a == c || b == c) {
+            throw new IllegalArgumentException("The output buffer cannot also be an operand");
+        }
+
+        if (alpha == 0.0) {
+            TileOps.scaleTile(c.raw(), 0, c.stride(), c.getRows(), c.getCols(), beta);
+            return;
+        }
+        TileOps ops = new TileOps(kernel, opA, kernel.pack(opB, alpha, packBuffer), beta, null, null, null);
+        run(new TileTask<>(ops, threshold, kernel.getBlockN(),
+                c.raw(), 0, c.stride(), opA.rows, opB.cols, opA.cols));
+    }
+
+    // Runs in the caller's worker when already inside the pool
+    private void run(TileTask<double[]> task) {
+        if (ForkJoinTask.getPool() == pool) {
+            task.invoke();
+        } else {
+            pool.invoke(task);
+        }
+    }
+
+    // Leaves run the blocked kernel and, when metrics are attached, time themselves
+    private static final class TileOps implements TileTask.Ops<double[]> {
+
+        private final BlockedKernel kernel;
+        private final Block a;
+        private final BlockedKernel.Panels b;
+        private final double beta;
+        private final Epilogue epilogue;
+        private final ExecutionMetrics metrics;
+        private final AtomicBoolean cancelled;
+
+        TileOps(BlockedKernel kernel, Block a, BlockedKernel.Panels b, double beta, Epilogue epilogue,
+                ExecutionMetrics metrics, AtomicBoolean cancelled) {
+            this.kernel = kernel;
             this.a = a;
             this.b = b;
-            this.result = result;
-            this.startRow = startRow;
-            this.endRow = endRow;
-            this.completedRows = completedRows;
-            this.progressCallback = progressCallback;
+            this.beta = beta;
+            this.epilogue = epilogue;
+            this.metrics = metrics;
+            this.cancelled = cancelled;
         }
 
         @Override
-        protected void compute() {
-            int rowCount = endRow - startRow;
-
-            if (rowCount <= threshold) {
-                computeDirectly();
+        public void leaf(double[] out, int offset, int stride,
+                         int startRow, int endRow, int startCol, int endCol, int startK, int endK) {
+            long start = metrics != null ? System.nanoTime() : 0L;
+            // Exactly one leaf per C element starts at K = 0, and it writes to C itself:
+            // K-split partial buffers only ever hold upper K ranges
+            if (startK == 0 && beta != 1.0) {
+                scaleTile(out, offset, stride, endRow - startRow, endCol - startCol, beta);
+            }
+            if (cancelled == null) {
+                kernel.multiply(a, b, out, offset, stride, startRow, endRow, startCol, endCol, startK, endK);
             } else {
-                int mid = startRow + rowCount / 2;
-
-                MultiplyTask leftTask = new MultiplyTask(a, b, result, startRow, mid, completedRows, progressCallback);
-                MultiplyTask rightTask = new MultiplyTask(a, b, result, mid, endRow, completedRows, progressCallback);
+                // One blockK slab at a time, so a cancelled run leaves the worker quickly
+                for (int k0 = startK; k0 < endK && !cancelled.get(); k0 += kernel.getBlockK()) {
+                    int k1 = Math.min(endK, k0 + kernel.getBlockK());
+                    kernel.multiply(a, b, out, offset, stride, startRow, endRow, startCol, endCol, k0, k1);
+                }
+            }
 
-                leftTask.fork();
-                rightTask.compute();
-                leftTask.join();
+            if (metrics != null) {
+                metrics.recordLeaf(start, (long) (endRow - startRow) * (endCol - startCol) * (endK - startK));
             }
         }
 
-        // بعد ما يخلص كل صف بيزيد العداد وبيبلغ ال progressCallback لو مش null
-        private void computeDirectly() {
-            int n = a.getCols();
-            int p = b.getCols();
-
-            for (int i = startRow; i < endRow; i++) {
-                for (int j = 0; j < p; j++) {
-                    double sum = 0.0;
-                    for (int k = 0; k < n; k++) {
-                        sum += a.get(i, k) * b.get(k, j);
+        // tile *= beta; beta = 0 clears the tile outright so NaN/Inf do not survive
+        static void scaleTile(double[] tile, int offset, int stride, int rows, int cols, double beta) {
+            for (int i = 0; i < rows; i++) {
+                int row = offset + i * stride;
+                if (beta == 0.0) {
+                    Arrays.fill(tile, row, row + cols, 0.0);
+                } else {
+                    for (int j = 0; j < cols; j++) {
+                        tile[row + j] *= beta;
                     }
-                    result[i][j] = sum;
                 }
+            }
+        }
 
-                int completed = completedRows.incrementAndGet();
-                if (progressCallback != null) {
-                    try {
-                        progressCallback.accept(completed);
-                    } catch (Exception _) {
-                    }
-                }
+        @Override
+        public void complete(double[] out, int offset, int stride,
+                             int startRow, int endRow, int startCol, int endCol) {
+            if (epilogue != null) {
+                epilogue.apply(out, offset, stride, startRow, endRow, startCol, endCol);
             }
         }
+
+        @Override
+        public boolean isCancelled() {
+            return cancelled != null && cancelled.get();
+        }
+
+        @Override
+        public double[] allocate(int length) {
+            return new double[length];
+        }
+
+        @Override
+        public void add(double[] target, int offset, int stride, double[] partial, int rows, int cols) {
+            TileTask.addTile(target, offset, stride, partial, rows, cols);
+        }
     }
-}
\ No newline at end of file
+}
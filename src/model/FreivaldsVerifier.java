@@ -0,0 +1,129 @@
+package model;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Freivalds' check that C = A · B in O(n²) per round instead of the O(n³) of
+ * recomputing the product: draw a random ±1 vector r and compare A · (B · r)
+ * with C · r. Each round is three matrix-vector products, split across the pool.
+ * <p>
+ * A wrong C passes a round with probability at most 1/2, so it passes all
+ * rounds with probability at most 2^-rounds. Exact equality is hopeless in
+ * floating point, so row i is accepted while
+ * |A·B·r - C·r|_i <= tolerance · (|A| · |B| · 1)_i, the magnitude the rounding
+ * error of any summation order is proportional to. The bound is computed once
+ * per check and shared by all rounds.
+ * <p>
+ * The vectors come from the calling thread's {@link ThreadLocalRandom}, so a
+ * verifier is safe to share and a producer of C cannot predict them.
+ */
+public class FreivaldsVerifier {
+
+    public static final int DEFAULT_ROUNDS = 10;
+    public static final double DEFAULT_TOLERANCE = 1e-12;
+
+    private final int rounds;
+    private final double tolerance;
+    private final ForkJoinPool pool;
+
+    public FreivaldsVerifier() {
+        this(DEFAULT_ROUNDS, DEFAULT_TOLERANCE);
+    }
+
+    public FreivaldsVerifier(int rounds, double tolerance) {
+        this(rounds, tolerance, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param rounds    independent random vectors; a wrong product survives all
+     *                  of them with probability at most 2^-rounds
+     * @param tolerance accepted error relative to the row's |A| · |B| · 1; that
+     *                  sums a whole row of C, so keep it tight (correct
+     *                  products measure a few machine epsilons)
+     */
+    public FreivaldsVerifier(int rounds, double tolerance, ForkJoinPool pool) {
+        if (rounds <= 0) {
+            throw new IllegalArgumentException("Rounds must be positive, got " + rounds);
+        }
+        if (!(tolerance >= 0)) {
+            throw new IllegalArgumentException("Tolerance cannot be negative, got " + tolerance);
+        }
+        this.rounds = rounds;
+        this.tolerance = tolerance;
+        this.pool = pool;
+    }
+
+    /** True when c passes every round; stops at the first failing one. */
+    public boolean verify(DenseMatrix a, DenseMatrix b, DenseMatrix c) {
+        return check(a, b, c, true) <= tolerance;
+    }
+
+    /**
+     * The largest error seen over all rounds, relative to the rounding bound
+     * |A| · |B| · 1 of its row; c is accepted while this is at most the
+     * tolerance. Infinite when a row whose bound is zero has a nonzero error.
+     */
+    public double residual(DenseMatrix a, DenseMatrix b, DenseMatrix c) {
+        return check(a, b, c, false);
+    }
+
+    private double check(DenseMatrix a, DenseMatrix b, DenseMatrix c, boolean stopOnFailure) {
+        int m = a.getRows();
+        int n = a.getCols();
+        int p = b.getCols();
+        MatrixUtils.validateDimensions(m, n, b.getRows(), p);
+        if (c.getRows() != m || c.getCols() != p) {
+            throw new IllegalArgumentException(
+                    String.format("Product of %dx%d and %dx%d is %dx%d, got %dx%d",
+                            m, n, n, p, m, p, c.getRows(), c.getCols())
+            );
+        }
+        Block blockA = Block.of(a);
+        Block blockB = Block.of(b);
+        Block blockC = Block.of(c);
+
+        double[] r = new double[p];
+        double[] br = new double[n];
+        double[] abr = new double[m];
+        double[] cr = new double[m];
+
+        // |A| · |B| · 1, reusing the round vectors as scratch
+        double[] bound = new double[m];
+        Arrays.fill(r, 1.0);
+        MatVecTask.apply(pool, blockB, r, br, true);
+        MatVecTask.apply(pool, blockA, br, bound, true);
+
+        SplittableRandom random = new SplittableRandom(ThreadLocalRandom.current().nextLong());
+        double worst = 0.0;
+        for (int round = 0; round < rounds; round++) {
+            for (int j = 0; j < p; j++) {
+                r[j] = random.nextBoolean() ? 1.0 : -1.0;
+            }
+            MatVecTask.apply(pool, blockB, r, br, false);
+            MatVecTask.apply(pool, blockA, br, abr, false);
+            MatVecTask.apply(pool, blockC, r, cr, false);
+
+            for (int i = 0; i < m; i++) {
+                double error = Math.abs(abr[i] - cr[i]);
+                double scaled = error == 0 ? 0 : error / bound[i];
+                // A NaN anywhere in c must fail, not vanish in Math.max
+                worst = Double.isNaN(scaled) ? Double.POSITIVE_INFINITY : Math.max(worst, scaled);
+            }
+            if (stopOnFailure && worst > tolerance) {
+                break;
+            }
+        }
+        return worst;
+    }
+
+    public int getRounds() {
+        return rounds;
+    }
+
+    public double getTolerance() {
+        return tolerance;
+    }
+}
@@ -0,0 +1,94 @@
+package model;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Core count and data cache sizes of the machine we run on. Cache sizes come
+ * from sysfs on Linux; elsewhere (or if sysfs is unreadable) conservative
+ * defaults are used.
+ */
+public final class HostInfo {
+
+    private static final long DEFAULT_L1D = 32 * 1024;
+    private static final long DEFAULT_L2 = 1024 * 1024;
+
+    private final int cores;
+    private final long l1dBytes;
+    private final long l2Bytes;
+
+    public HostInfo(int cores, long l1dBytes, long l2Bytes) {
+        this.cores = cores;
+        this.l1dBytes = l1dBytes;
+        this.l2Bytes = l2Bytes;
+    }
+
+    public static HostInfo current() {
+        long l1d = DEFAULT_L1D;
+        long l2 = DEFAULT_L2;
+        Path cacheDir = Path.of("/sys/devices/system/cpu/cpu0/cache");
+        for (int index = 0; index < 8; index++) {
+            Path dir = cacheDir.resolve("index" + index);
+            if (!Files.isDirectory(dir)) {
+                break;
+            }
+            try {
+                int level = Integer.parseInt(Files.readString(dir.resolve("level")).trim());
+                String type = Files.readString(dir.resolve("type")).trim();
+                long size = parseSize(Files.readString(dir.resolve("size")).trim());
+                if (level == 1 && type.equals("Data")) {
+                    l1d = size;
+                } else if (level == 2) {
+                    l2 = size;
+                }
+            } catch (IOException | NumberFormatException _) {
+                // Keep the defaults for anything we cannot read
+            }
+        }
+        return new HostInfo(Runtime.getRuntime().availableProcessors(), l1d, l2);
+    }
+
+    // sysfs reports sizes like "48K" or "2048K"
+    private static long parseSize(String text) {
+        long unit = 1;
+        char last = Character.toUpperCase(text.charAt(text.length() - 1));
+        if (last == 'K') {
+            unit = 1024;
+        } else if (last == 'M') {
+            unit = 1024 * 1024;
+        }
+        String digits = unit == 1 ? text : text.substring(0, text.length() - 1);
+        return Long.parseLong(digits) * unit;
+    }
+
+    public int getCores() {
+        return cores;
+    }
+
+    public long getL1dBytes() {
+        return l1dBytes;
+    }
+
+    public long getL2Bytes() {
+        return l2Bytes;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof HostInfo other)) {
+            return false;
+        }
+        return cores == other.cores && l1dBytes == other.l1dBytes && l2Bytes == other.l2Bytes;
+    }
+
+    @Override
+    public int hashCode() {
+        return (int) (31 * (31 * cores + l1dBytes) + l2Bytes);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d cores, L1d %d KB, L2 %d KB", cores, l1dBytes / 1024, l2Bytes / 1024);
+    }
+}
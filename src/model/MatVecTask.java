@@ -0,0 +1,71 @@
+package model;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * y = A · x with the rows of A split across a pool, about 16K multiply-adds per
+ * leaf; A must have unit column stride. With absolute set it computes |A| · x
+ * instead, the elementwise magnitude that rounding-error bounds are expressed in.
+ */
+final class MatVecTask extends RecursiveAction {
+
+    private static final int GRAIN = 1 << 14;
+
+    private final Block a;
+    private final double[] x;
+    private final double[] y;
+    private final boolean absolute;
+    private final int from;       // Inclusive
+    private final int to;         // Exclusive
+    private final int rowGrain;
+
+    private MatVecTask(Block a, double[] x, double[] y, boolean absolute, int from, int to, int rowGrain) {
+        this.a = a;
+        this.x = x;
+        this.y = y;
+        this.absolute = absolute;
+        this.from = from;
+        this.to = to;
+        this.rowGrain = rowGrain;
+    }
+
+    static void apply(ForkJoinPool pool, Block a, double[] x, double[] y, boolean absolute) {
+        int rowGrain = Math.max(1, GRAIN / a.cols);
+        MatVecTask task = new MatVecTask(a, x, y, absolute, 0, a.rows, rowGrain);
+        if (a.rows <= rowGrain) {
+            task.compute();
+        } else if (ForkJoinTask.getPool() == pool) {
+            task.invoke();
+        } else {
+            pool.invoke(task);
+        }
+    }
+
+    @Override
+    protected void compute() {
+        if (to - from <= rowGrain) {
+            for (int i = from; i < to; i++) {
+                int row = a.index(i, 0);
+                double sum = 0.0;
+                if (absolute) {
+                    for (int k = 0; k < a.cols; k++) {
+                        sum += Math.abs(a.data[row + k]) * x[k];
+                    }
+                } else {
+                    for (int k = 0; k < a.cols; k++) {
+                        sum += a.data[row + k] * x[k];
+                    }
+                }
+                y[i] = sum;
+            }
+            return;
+        }
+        int mid = from + (to - from) / 2;
+        MatVecTask top = new MatVecTask(a, x, y, absolute, from, mid, rowGrain);
+        top.fork();
+        new MatVecTask(a, x, y, absolute, mid, to, rowGrain).compute();
+        top.join();
+    }
+}
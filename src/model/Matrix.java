@@ -1,9 +1,16 @@
 package model;
 
-public class Matrix {
-    private final double[][] data;
+import java.util.stream.IntStream;
+
+public final class Matrix implements DenseMatrix {
+    private static final int FINGERPRINT_CHUNK = 1 << 16;
+
+    // Row-major: element (row, col) lives at data[row * cols + col]
+    private final double[] data;
     private final int rows;
     private final int cols;
+    // Content hash, computed on first use; 0 means not yet computed
+    private volatile long fingerprint;
 
     public Matrix(double[][] data) {
         if (data == null || data.length == 0 || data[0].length == 0) {
@@ -22,20 +29,47 @@ public class Matrix {
 
         this.rows = data.length;
         this.cols = data[0].length;
-        this.data = new double[rows][cols];
+        this.data = new double[Math.multiplyExact(rows, cols)];
         for (int i = 0; i < rows; i++) {
-            System.arraycopy(data[i], 0, this.data[i], 0, cols);
+            System.arraycopy(data[i], 0, this.data, i * cols, cols);
+        }
+    }
+
+    private Matrix(double[] data, int rows, int cols) {
+        this.data = data;
+        this.rows = rows;
+        this.cols = cols;
+    }
+
+    /**
+     * Wraps a row-major buffer without copying it. The caller hands over
+     * ownership: the buffer must not be written after this call, otherwise
+     * the immutability of the returned matrix is broken.
+     */
+    static Matrix adopt(double[] data, int rows, int cols) {
+        if (rows <= 0 || cols <= 0) {
+            throw new IllegalArgumentException("Matrix cannot be null or empty.");
+        }
+        if (data == null || data.length != (long) rows * cols) {
+            throw new IllegalArgumentException(
+                    String.format("Buffer of length %d does not hold a %dx%d matrix",
+                            data == null ? 0 : data.length, rows, cols)
+            );
         }
+        return new Matrix(data, rows, cols);
     }
 
+    @Override
     public int getRows() {
         return rows;
     }
 
+    @Override
     public int getCols() {
         return cols;
     }
 
+    @Override
     public double get(int row, int col) {
         if (row < 0 || row >= rows || col < 0 || col >= cols) {
             throw new IndexOutOfBoundsException(
@@ -43,6 +77,65 @@ public class Matrix {
                             row, col, rows, cols)
             );
         }
-        return data[row][col];
+        return data[row * cols + col];
+    }
+
+    // Kernel access: no bounds check, callers index with row * stride() + col
+    double getUnchecked(int row, int col) {
+        return data[row * cols + col];
+    }
+
+    /**
+     * 64-bit hash of the shape and the exact bit patterns of all elements, computed
+     * once (in parallel for large matrices) and then memoized, which is safe
+     * because the contents never change. Equal contents give equal fingerprints;
+     * distinct contents collide with probability about 2^-64.
+     */
+    public long fingerprint() {
+        long h = fingerprint;
+        if (h == 0) {
+            h = computeFingerprint();
+            fingerprint = h;
+        }
+        return h;
+    }
+
+    private long computeFingerprint() {
+        int chunks = (data.length + FINGERPRINT_CHUNK - 1) / FINGERPRINT_CHUNK;
+        long[] chunkHashes = new long[chunks];
+        IntStream range = IntStream.range(0, chunks);
+        (chunks > 1 ? range.parallel() : range).forEach(c -> {
+            int from = c * FINGERPRINT_CHUNK;
+            int to = Math.min(data.length, from + FINGERPRINT_CHUNK);
+            long h = c * 0x9E3779B97F4A7C15L;
+            for (int i = from; i < to; i++) {
+                h = Long.rotateLeft(h ^ Double.doubleToRawLongBits(data[i]) * 0xC2B2AE3D27D4EB4FL, 31)
+                        * 0x9E3779B97F4A7C15L;
+            }
+            chunkHashes[c] = h;
+        });
+
+        long h = ((long) rows << 32) | cols;
+        for (long chunkHash : chunkHashes) {
+            h = (h ^ mix(chunkHash)) * 0x9E3779B97F4A7C15L;
+        }
+        h = mix(h);
+        return h != 0 ? h : 1;
+    }
+
+    // MurmurHash3's 64-bit finalizer
+    private static long mix(long h) {
+        h = (h ^ (h >>> 33)) * 0xFF51AFD7ED558CCDL;
+        h = (h ^ (h >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return h ^ (h >>> 33);
+    }
+
+    // Kernel access: the backing buffer itself, must be treated as read-only
+    double[] raw() {
+        return data;
+    }
+
+    int stride() {
+        return cols;
     }
-}
\ No newline at end of file
+}
@@ -1,5 +1,17 @@
 package model;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
 public class MatrixBenchmark {
 
     public static void runThresholdTuning(int size, int[] thresholds) {
@@ -39,12 +51,474 @@ public class MatrixBenchmark {
         System.out.println("=== End of Threshold Tuning ===\n");
     }
 
+    public static void runEngineComparison(int size, int threshold) {
+        System.out.println("\n=== Engine Comparison for Matrix " + size + "x" + size + " ===");
+        System.out.printf("%-12s %-15s %-10s %-10s\n", "Engine", "Time(ms)", "Speedup", "Verified");
+
+        Matrix A = MatrixUtils.randomMatrix(size, size);
+        Matrix B = MatrixUtils.randomMatrix(size, size);
+        FreivaldsVerifier verifier = new FreivaldsVerifier();
+        Matrix[] result = new Matrix[1];
+
+        MatrixMultiplier seqMul = new SequentialMatrixMultiplier();
+        long seqTime = MatrixUtils.measure(() -> result[0] = seqMul.multiply(A, B));
+        System.out.printf("%-12s %-15d %-10.2f %-10s\n", "Sequential", seqTime, 1.0,
+                verifier.verify(A, B, result[0]) ? "yes" : "NO");
+
+        MatrixMultiplier[] engines = {
+                new ForkJoinMatrixMultiplier(threshold),
+                new StrassenMatrixMultiplier(StrassenMatrixMultiplier.DEFAULT_CROSSOVER,
+                        new ForkJoinMatrixMultiplier(threshold))
+        };
+        String[] names = {"ForkJoin", "Strassen"};
+
+        for (int i = 0; i < engines.length; i++) {
+            MatrixMultiplier engine = engines[i];
+            long time = MatrixUtils.measure(() -> result[0] = engine.multiply(A, B));
+            System.out.printf("%-12s %-15d %-10.2f %-10s\n", names[i], time, (double) seqTime / time,
+                    verifier.verify(A, B, result[0]) ? "yes" : "NO");
+        }
+
+        System.out.println("=== End of Engine Comparison ===\n");
+    }
+
+    /**
+     * Strong scaling: fixed size, parallelism 1..maxParallelism, each run in a
+     * dedicated pool. Reports speedup S = T1 / Tp, efficiency S / p and the
+     * Karp-Flatt experimentally determined serial fraction (1/S - 1/p) / (1 - 1/p).
+     */
+    public static void runStrongScaling(int size, int maxParallelism, int threshold) {
+        System.out.println("\n=== Strong Scaling for Matrix " + size + "x" + size + " ===");
+        System.out.printf("%-8s %-12s %-10s %-12s %-12s\n", "Threads", "Time(ms)", "Speedup", "Efficiency", "Serial frac");
+
+        Matrix A = MatrixUtils.randomMatrix(size, size);
+        Matrix B = MatrixUtils.randomMatrix(size, size);
+
+        long baseTime = 0;
+        for (int p = 1; p <= maxParallelism; p++) {
+            long time = timeWithParallelism(A, B, p, threshold);
+            if (p == 1) {
+                baseTime = time;
+            }
+            double speedup = (double) baseTime / time;
+            String serialFraction = p == 1
+                    ? "-"
+                    : String.format("%.4f", (1.0 / speedup - 1.0 / p) / (1.0 - 1.0 / p));
+
+            System.out.printf("%-8d %-12.2f %-10.2f %-12.2f %-12s\n",
+                    p, time / 1e6, speedup, speedup / p, serialFraction);
+        }
+
+        System.out.println("=== End of Strong Scaling ===\n");
+    }
+
+    /**
+     * Weak scaling: the work per thread stays constant, so with p threads the
+     * matrix edge is baseSize * cbrt(p). Scaled efficiency is T1 / Tp (1.0 is ideal).
+     */
+    public static void runWeakScaling(int baseSize, int maxParallelism, int threshold) {
+        System.out.println("\n=== Weak Scaling from Matrix " + baseSize + "x" + baseSize + " ===");
+        System.out.printf("%-8s %-8s %-12s %-12s %-12s\n", "Threads", "Size", "Time(ms)", "GFLOP/s", "Efficiency");
+
+        long baseTime = 0;
+        for (int p = 1; p <= maxParallelism; p++) {
+            int size = (int) Math.round(baseSize * Math.cbrt(p));
+            Matrix A = MatrixUtils.randomMatrix(size, size);
+            Matrix B = MatrixUtils.randomMatrix(size, size);
+
+            long time = timeWithParallelism(A, B, p, threshold);
+            if (p == 1) {
+                baseTime = time;
+            }
+            double gflops = 2.0 * size * size * size / time;
+
+            System.out.printf("%-8d %-8d %-12.2f %-12.2f %-12.2f\n",
+                    p, size, time / 1e6, gflops, (double) baseTime / time);
+        }
+
+        System.out.println("=== End of Weak Scaling ===\n");
+    }
+
+    private static long timeWithParallelism(Matrix A, Matrix B, int parallelism, int threshold) {
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            MatrixMultiplier parMul = new ForkJoinMatrixMultiplier(threshold, pool);
+            return MatrixUtils.measureBest(() -> parMul.multiply(A, B), 3);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    // k - 1 allocating products vs squaring into reused buffers
+    public static void runPowerComparison(int size, int k) {
+        System.out.println("\n=== Matrix Power " + size + "x" + size + ", k = " + k + " ===");
+        System.out.printf("%-18s %-10s %-12s\n", "Method", "Products", "Time(ms)");
+
+        Matrix A = MatrixUtils.randomMatrix(size, size);
+        ForkJoinMatrixMultiplier parMul = new ForkJoinMatrixMultiplier(64);
+        long repeatedTime = MatrixUtils.measure(() -> {
+            Matrix product = A;
+            for (int i = 1; i < k; i++) {
+                product = parMul.multiply(product, A);
+            }
+        });
+        MatrixPower power = new MatrixPower(parMul);
+        MatrixBuffer out = new MatrixBuffer(size, size);
+        long squaringTime = MatrixUtils.measure(() -> power.power(A, k, out));
+
+        int products = MatrixPower.productCount(k);
+        System.out.printf("%-18s %-10d %-12d\n", "repeated multiply", k - 1, repeatedTime);
+        System.out.printf("%-18s %-10d %-12d\n", "squaring", products, squaringTime);
+        System.out.println("=== End of Matrix Power ===\n");
+    }
+
+    // Freivalds verification vs the product it checks, and whether a one-element corruption is caught
+    public static void runVerificationCost(int[] sizes) {
+        System.out.println("\n=== Freivalds Verification (" + FreivaldsVerifier.DEFAULT_ROUNDS + " rounds) ===");
+        System.out.printf("%-8s %-14s %-14s %-10s %-12s %-10s\n",
+                "Size", "Multiply(ms)", "Verify(ms)", "Ratio", "Residual", "Corrupt");
+
+        FreivaldsVerifier verifier = new FreivaldsVerifier();
+        MatrixMultiplier parMul = new ForkJoinMatrixMultiplier(64);
+        for (int size : sizes) {
+            Matrix A = MatrixUtils.randomMatrix(size, size);
+            Matrix B = MatrixUtils.randomMatrix(size, size);
+            Matrix[] product = new Matrix[1];
+            long multiplyTime = MatrixUtils.measureBest(() -> product[0] = parMul.multiply(A, B), 1);
+            long verifyTime = MatrixUtils.measureBest(() -> verifier.verify(A, B, product[0]), 3);
+
+            MatrixBuffer corrupt = MatrixBuffer.copyOf(product[0]);
+            corrupt.set(size / 2, size / 3, corrupt.get(size / 2, size / 3) * (1 + 1e-6));
+            System.out.printf("%-8d %-14.2f %-14.2f %-10.1f %-12.2e %-10s\n", size,
+                    multiplyTime / 1e6, verifyTime / 1e6, (double) multiplyTime / verifyTime,
+                    verifier.residual(A, B, product[0]),
+                    verifier.verify(A, B, corrupt) ? "missed" : "caught");
+        }
+        System.out.println("=== End of Freivalds Verification ===\n");
+    }
+
+    // relu(2AB + C) and relu(2X + C) - Y evaluated step by step (one full temporary
+    // per operation) vs as one lazy expression fused into a single pass
+    public static void runExpressionComparison(int size) {
+        System.out.println("\n=== Fused Expressions " + size + "x" + size + " ===");
+        System.out.printf("%-22s %-14s %-14s %-12s %-10s\n",
+                "Expression", "Eager(ms)", "Fused(ms)", "Saved(MB)", "Speedup");
+
+        Matrix A = MatrixUtils.randomMatrix(size, size);
+        Matrix B = MatrixUtils.randomMatrix(size, size);
+        Matrix C = MatrixUtils.randomMatrix(size, size);
+        Matrix Y = MatrixUtils.randomMatrix(size, size);
+        ForkJoinMatrixMultiplier engine = new ForkJoinMatrixMultiplier(64);
+        double temporaryMb = (double) size * size * Double.BYTES / 1e6;
+
+        long eagerProduct = MatrixUtils.measureBest(() -> {
+            Matrix ab = engine.multiply(A, B);
+            Matrix scaled = MatrixExpression.of(ab).scale(2).evaluate(engine);
+            Matrix sum = MatrixExpression.of(scaled).plus(MatrixExpression.of(C)).evaluate(engine);
+            MatrixExpression.of(sum).relu().evaluate(engine);
+        }, 3);
+        long fusedProduct = MatrixUtils.measureBest(() -> MatrixExpression.of(A).times(MatrixExpression.of(B))
+                .scale(2).plus(MatrixExpression.of(C)).relu().evaluate(engine), 3);
+        System.out.printf("%-22s %-14.2f %-14.2f %-12.1f %-10.2f\n", "relu(2AB + C)",
+                eagerProduct / 1e6, fusedProduct / 1e6, 3 * temporaryMb, (double) eagerProduct / fusedProduct);
+
+        long eagerElementwise = MatrixUtils.measureBest(() -> {
+            Matrix scaled = MatrixExpression.of(A).scale(2).evaluate(engine);
+            Matrix sum = MatrixExpression.of(scaled).plus(MatrixExpression.of(C)).evaluate(engine);
+            Matrix relu = MatrixExpression.of(sum).relu().evaluate(engine);
+            MatrixExpression.of(relu).minus(MatrixExpression.of(Y)).evaluate(engine);
+        }, 5);
+        long fusedElementwise = MatrixUtils.measureBest(() -> MatrixExpression.of(A).scale(2)
+                .plus(MatrixExpression.of(C)).relu().minus(MatrixExpression.of(Y)).evaluate(engine), 5);
+        System.out.printf("%-22s %-14.2f %-14.2f %-12.1f %-10.2f\n", "relu(2X + C) - Y",
+                eagerElementwise / 1e6, fusedElementwise / 1e6, 3 * temporaryMb,
+                (double) eagerElementwise / fusedElementwise);
+
+        System.out.println("=== End of Fused Expressions ===\n");
+    }
+
+    // General fork/join engine vs the shape-specialized kernels on vector shapes;
+    // GB/s counts each operand and the result once, the traffic these shapes cannot avoid
+    public static void runVectorShapeComparison(int size) {
+        System.out.println("\n=== Vector Shapes, n = " + size + " ===");
+        System.out.printf("%-8s %-26s %-14s %-14s %-12s %-10s\n",
+                "Route", "Shape", "General(ms)", "Kernel(ms)", "Kernel GB/s", "Speedup");
+
+        int[][] dims = {
+                {size, size, 1},                 // GEMV
+                {1, size, size},                 // GEVM
+                {1, size * size, 1},             // Dot product
+                {size, 1, size}                  // Outer product
+        };
+        MatrixMultiplier general = new ForkJoinMatrixMultiplier(64);
+        ShapeDispatchingMatrixMultiplier dispatcher = new ShapeDispatchingMatrixMultiplier(general);
+        for (int[] d : dims) {
+            Matrix A = MatrixUtils.randomMatrix(d[0], d[1]);
+            Matrix B = MatrixUtils.randomMatrix(d[1], d[2]);
+            long generalTime = MatrixUtils.measureBest(() -> general.multiply(A, B), 5);
+            long kernelTime = MatrixUtils.measureBest(() -> dispatcher.multiply(A, B), 5);
+            double bytes = ((double) d[0] * d[1] + (double) d[1] * d[2] + (double) d[0] * d[2]) * Double.BYTES;
+            System.out.printf("%-8s %-26s %-14.3f %-14.3f %-12.2f %-10.2f\n",
+                    ShapeDispatchingMatrixMultiplier.route(d[0], d[1], d[2]),
+                    d[0] + "x" + d[1] + " * " + d[1] + "x" + d[2],
+                    generalTime / 1e6, kernelTime / 1e6, bytes / kernelTime, (double) generalTime / kernelTime);
+        }
+        System.out.println("=== End of Vector Shapes ===\n");
+    }
+
+    // Optimal chain order vs the same chain multiplied left to right
+    public static void runChainComparison(int[] dims) {
+        Matrix[] chain = new Matrix[dims.length - 1];
+        for (int i = 0; i < chain.length; i++) {
+            chain[i] = MatrixUtils.randomMatrix(dims[i], dims[i + 1]);
+        }
+        MatrixChainMultiplier.Plan plan = MatrixChainMultiplier.plan(dims);
+        System.out.println("\n=== Matrix Chain " + Arrays.toString(dims) + " ===");
+        System.out.println("Optimal order: " + plan);
+
+        MatrixMultiplier parMul = new ForkJoinMatrixMultiplier(64);
+        long naiveTime = MatrixUtils.measureBest(() -> {
+            Matrix product = chain[0];
+            for (int i = 1; i < chain.length; i++) {
+                product = parMul.multiply(product, chain[i]);
+            }
+        }, 3);
+        MatrixChainMultiplier chainMul = new MatrixChainMultiplier();
+        long chainTime = MatrixUtils.measureBest(() -> chainMul.multiply(chain), 3);
+
+        System.out.printf("%-16s %-16s %-12s\n", "Order", "Multiply-adds", "Time(ms)");
+        System.out.printf("%-16s %-16d %-12.2f\n", "left-to-right", plan.getLeftToRightCost(), naiveTime / 1e6);
+        System.out.printf("%-16s %-16d %-12.2f\n", "optimal", plan.getCost(), chainTime / 1e6);
+        System.out.println("=== End of Matrix Chain ===\n");
+    }
+
+    // Looping over the fork/join multiply vs one batched call, same total flops per size
+    public static void runBatchComparison(int[] sizes, long flopsPerSize) {
+        System.out.println("\n=== Batched Small Products ===");
+        System.out.printf("%-8s %-8s %-14s %-14s %-10s\n", "Size", "Count", "Loop(ms)", "Batch(ms)", "Speedup");
+
+        ForkJoinMatrixMultiplier parMul = new ForkJoinMatrixMultiplier(64);
+        BatchMatrixMultiplier batchMul = new BatchMatrixMultiplier();
+        for (int size : sizes) {
+            int count = (int) Math.max(1, flopsPerSize / (2L * size * size * size));
+            List<Matrix> as = new ArrayList<>(count);
+            List<Matrix> bs = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                as.add(MatrixUtils.randomMatrix(size, size));
+                bs.add(MatrixUtils.randomMatrix(size, size));
+            }
+
+            long loopTime = MatrixUtils.measureBest(() -> {
+                for (int i = 0; i < as.size(); i++) {
+                    parMul.multiply(as.get(i), bs.get(i));
+                }
+            }, 3);
+            long batchTime = MatrixUtils.measureBest(() -> batchMul.multiply(as, bs), 3);
+
+            System.out.printf("%-8d %-8d %-14.2f %-14.2f %-10.2f\n",
+                    size, count, loopTime / 1e6, batchTime / 1e6, (double) loopTime / batchTime);
+        }
+
+        System.out.println("=== End of Batched Small Products ===\n");
+    }
+
+    // Back-to-back products with fresh operands each run, on the heap and off it
+    public static void runOffHeapComparison(int size, int runs, int threshold) {
+        System.out.println("\n=== Heap vs Off-Heap, " + runs + " runs of " + size + "x" + size + " ===");
+        System.out.printf("%-10s %-12s %-10s %-12s\n", "Storage", "Time(ms)", "GCs", "GC time(ms)");
+
+        ForkJoinMatrixMultiplier parMul = new ForkJoinMatrixMultiplier(threshold);
+        long[] gcBefore = gcTotals();
+        long start = System.nanoTime();
+        for (int r = 0; r < runs; r++) {
+            parMul.multiply(MatrixUtils.randomMatrix(size, size), MatrixUtils.randomMatrix(size, size));
+        }
+        printStorageRow("heap", System.nanoTime() - start, gcBefore);
+
+        OutOfCoreMatrixMultiplier offHeapMul = new OutOfCoreMatrixMultiplier(512, parMul);
+        gcBefore = gcTotals();
+        start = System.nanoTime();
+        for (int r = 0; r < runs; r++) {
+            try (OffHeapMatrix A = MatrixUtils.randomOffHeapMatrix(size, size);
+                 OffHeapMatrix B = MatrixUtils.randomOffHeapMatrix(size, size);
+                 OffHeapMatrix C = offHeapMul.multiply(A, B)) {
+                C.get(0, 0);
+            }
+        }
+        printStorageRow("off-heap", System.nanoTime() - start, gcBefore);
+
+        System.out.println("=== End of Heap vs Off-Heap ===\n");
+    }
+
+    /**
+     * SUMMA across worker JVMs started on this machine vs the local fork/join
+     * engine, per panel width: wall time, bytes the coordinator sent and the
+     * workers sent each other, the slowest worker's compute time and the time
+     * workers sat waiting for panels.
+     */
+    public static void runDistributedComparison(int size, int workerCount) throws IOException {
+        System.out.println("\n=== Distributed SUMMA " + size + "x" + size + ", " + workerCount + " worker JVMs ===");
+        System.out.printf("%-16s %-12s %-12s %-12s %-14s %-14s %-10s\n",
+                "Engine", "Time(ms)", "Sent(MB)", "Peer(MB)", "Compute(ms)", "Wait(ms)", "Comm %");
+
+        Matrix A = MatrixUtils.randomMatrix(size, size);
+        Matrix B = MatrixUtils.randomMatrix(size, size);
+        ForkJoinMatrixMultiplier local = new ForkJoinMatrixMultiplier(64);
+        long localTime = MatrixUtils.measureBest(() -> local.multiply(A, B), 1);
+        System.out.printf("%-16s %-12.2f %-12s %-12s %-14.2f %-14s %-10s\n", "local", localTime / 1e6, "-", "-",
+                localTime / 1e6, "-", "-");
+
+        List<Process> processes = new ArrayList<>();
+        try {
+            List<InetSocketAddress> addresses = new ArrayList<>();
+            for (int w = 0; w < workerCount; w++) {
+                Process process = startWorkerJvm();
+                processes.add(process);
+                addresses.add(new InetSocketAddress(InetAddress.getLoopbackAddress(), readWorkerPort(process)));
+            }
+            for (int panel : new int[]{64, 256, 1024}) {
+                try (DistributedMatrixMultiplier distributed = new DistributedMatrixMultiplier(addresses, panel)) {
+                    distributed.multiply(A, B);          // Warms up the workers' JIT
+                    Matrix C = distributed.multiply(A, B);
+                    DistributedMatrixMultiplier.Stats stats = distributed.getLastStats();
+                    if (!new FreivaldsVerifier().verify(A, B, C)) {
+                        System.out.println("Distributed product failed verification");
+                    }
+                    System.out.printf("%-16s %-12.2f %-12.1f %-12.1f %-14.2f %-14.2f %-10.1f\n", "SUMMA panel " + panel,
+                            stats.getElapsedNanos() / 1e6, stats.getBytesSent() / 1e6, stats.getPeerBytes() / 1e6,
+                            stats.getComputeNanos() / 1e6, stats.getWaitNanos() / 1e6,
+                            100.0 * stats.getWaitNanos() / (stats.getWaitNanos() + stats.getComputeNanos()));
+                }
+            }
+        } finally {
+            for (Process process : processes) {
+                process.destroy();
+            }
+        }
+        System.out.println("=== End of Distributed SUMMA ===\n");
+    }
+
+    // Same JVM binary, flags and class path as this one, minus debugger agents
+    private static Process startWorkerJvm() throws IOException {
+        List<String> command = new ArrayList<>();
+        command.add(ProcessHandle.current().info().command().orElse("java"));
+        for (String arg : ManagementFactory.getRuntimeMXBean().getInputArguments()) {
+            if (!arg.startsWith("-agentlib") && !arg.startsWith("-javaagent")) {
+                command.add(arg);
+            }
+        }
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add("model.MatrixWorker");
+        command.add("0");
+        return new ProcessBuilder(command).redirectError(ProcessBuilder.Redirect.INHERIT).start();
+    }
+
+    // The worker prints "MatrixWorker listening on <port>" once it is bound
+    private static int readWorkerPort(Process process) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()));
+        String line = reader.readLine();
+        if (line == null) {
+            throw new IOException("Worker JVM exited before listening");
+        }
+        return Integer.parseInt(line.substring(line.lastIndexOf(' ') + 1));
+    }
+
+    private static void printStorageRow(String storage, long nanos, long[] gcBefore) {
+        long[] gcAfter = gcTotals();
+        System.out.printf("%-10s %-12.2f %-10d %-12d\n",
+                storage, nanos / 1e6, gcAfter[0] - gcBefore[0], gcAfter[1] - gcBefore[1]);
+    }
+
+    // {collections, milliseconds} summed over all collectors
+    private static long[] gcTotals() {
+        long count = 0;
+        long millis = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(0, gc.getCollectionCount());
+            millis += Math.max(0, gc.getCollectionTime());
+        }
+        return new long[]{count, millis};
+    }
+
+    public static void runAutoTuning() throws IOException {
+        HostInfo host = HostInfo.current();
+        System.out.println("\n=== Auto-Tuning Calibration (" + host + ") ===");
+        System.out.printf("%-12s %-6s %-10s %-7s %-7s %s\n", "Shape", "Size", "Threshold", "BlockK", "BlockN", "Time");
+
+        TuningProfile profile = new AutoTuner(host, System.out).calibrate();
+        profile.save(TuningProfile.DEFAULT_LOCATION);
+
+        System.out.println("\n" + profile);
+        System.out.println("Saved to " + TuningProfile.DEFAULT_LOCATION);
+        System.out.println("=== End of Auto-Tuning ===\n");
+    }
+
     public static void main(String[] args) {
+        if (args.length > 0 && args[0].equals("--calibrate")) {
+            try {
+                runAutoTuning();
+            } catch (IOException e) {
+                System.err.println("Could not save tuning profile: " + e.getMessage());
+            }
+            return;
+        }
+        if (args.length > 0 && args[0].equals("--scaling")) {
+            int cores = Runtime.getRuntime().availableProcessors();
+            for (int size : new int[]{512, 1024}) {
+                runStrongScaling(size, cores, 64);
+            }
+            runWeakScaling(512, cores, 64);
+            return;
+        }
+        if (args.length > 0 && args[0].equals("--power")) {
+            runPowerComparison(512, 64);
+            return;
+        }
+        if (args.length > 0 && args[0].equals("--verify")) {
+            runVerificationCost(new int[]{256, 512, 1024, 2048});
+            return;
+        }
+        if (args.length > 0 && args[0].equals("--expr")) {
+            runExpressionComparison(args.length > 1 ? Integer.parseInt(args[1]) : 2048);
+            return;
+        }
+        if (args.length > 0 && args[0].equals("--distributed")) {
+            int size = args.length > 1 ? Integer.parseInt(args[1]) : 2048;
+            int workers = args.length > 2 ? Integer.parseInt(args[2]) : 4;
+            try {
+                runDistributedComparison(size, workers);
+            } catch (IOException e) {
+                System.err.println("Distributed run failed: " + e.getMessage());
+            }
+            return;
+        }
+        if (args.length > 0 && args[0].equals("--vector")) {
+            runVectorShapeComparison(args.length > 1 ? Integer.parseInt(args[1]) : 4096);
+            return;
+        }
+        if (args.length > 0 && args[0].equals("--chain")) {
+            runChainComparison(new int[]{1024, 1024, 1024, 1024, 16});
+            runChainComparison(new int[]{2000, 8, 2000, 8, 2000, 64});
+            return;
+        }
+        if (args.length > 0 && args[0].equals("--batch")) {
+            runBatchComparison(new int[]{8, 16, 32, 64}, 1L << 27);
+            return;
+        }
+        if (args.length > 0 && args[0].equals("--offheap")) {
+            int size = args.length > 1 ? Integer.parseInt(args[1]) : 2048;
+            runOffHeapComparison(size, 3, 64);
+            return;
+        }
+
         int[] thresholds = {16, 32, 64, 128, 256, 512};
         int[] sizes = {256, 512, 1024};
 
         for (int size : sizes) {
             runThresholdTuning(size, thresholds);
         }
+
+        runEngineComparison(2048, 64);
     }
 }
@@ -0,0 +1,91 @@
+package model;
+
+import java.util.Arrays;
+
+/**
+ * Mutable row-major matrix, the output of in-place operations such as
+ * {@link ForkJoinMatrixMultiplier#gemm}. Allocate one up front and reuse it
+ * across iterations instead of receiving a fresh {@link Matrix} per product.
+ */
+public final class MatrixBuffer implements DenseMatrix {
+    // Row-major: element (row, col) lives at data[row * cols + col]
+    private final double[] data;
+    private final int rows;
+    private final int cols;
+
+    /** A zero-filled rows x cols buffer. */
+    public MatrixBuffer(int rows, int cols) {
+        if (rows <= 0 || cols <= 0) {
+            throw new IllegalArgumentException("Matrix cannot be null or empty.");
+        }
+        this.data = new double[Math.multiplyExact(rows, cols)];
+        this.rows = rows;
+        this.cols = cols;
+    }
+
+    public static MatrixBuffer copyOf(DenseMatrix m) {
+        MatrixBuffer copy = new MatrixBuffer(m.getRows(), m.getCols());
+        copy.copyFrom(m);
+        return copy;
+    }
+
+    @Override
+    public int getRows() {
+        return rows;
+    }
+
+    @Override
+    public int getCols() {
+        return cols;
+    }
+
+    @Override
+    public double get(int row, int col) {
+        checkIndex(row, col);
+        return data[row * cols + col];
+    }
+
+    public void set(int row, int col, double value) {
+        checkIndex(row, col);
+        data[row * cols + col] = value;
+    }
+
+    public void fill(double value) {
+        Arrays.fill(data, value);
+    }
+
+    /** Overwrites this buffer with m, which must have the same shape. */
+    public void copyFrom(DenseMatrix m) {
+        if (m.getRows() != rows || m.getCols() != cols) {
+            throw new IllegalArgumentException(
+                    String.format("Cannot copy a %dx%d matrix into a %dx%d buffer",
+                            m.getRows(), m.getCols(), rows, cols)
+            );
+        }
+        Block src = Block.of(m);
+        System.arraycopy(src.data, src.offset, data, 0, data.length);
+    }
+
+    /** An immutable snapshot of the current contents. */
+    public Matrix toMatrix() {
+        return Matrix.adopt(data.clone(), rows, cols);
+    }
+
+    private void checkIndex(int row, int col) {
+        if (row < 0 || row >= rows || col < 0 || col >= cols) {
+            throw new IndexOutOfBoundsException(
+                    String.format("Invalid indices (%d, %d) for matrix of size %dx%d",
+                            row, col, rows, cols)
+            );
+        }
+    }
+
+    // Kernel access: the backing buffer itself
+    double[] raw() {
+        return data;
+    }
+
+    int stride() {
+        return cols;
+    }
+}
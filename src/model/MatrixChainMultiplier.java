@@ -0,0 +1,167 @@
+package model;
+
+import java.util.List;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Multiplies a chain A1 · A2 · ... · An in the association order that needs the
+ * fewest multiply-adds, found with the classic O(n³) dynamic program over the
+ * chain dimensions.
+ * <p>
+ * The chosen parenthesization is executed as a tree of fork/join tasks: the two
+ * operands of every product are computed concurrently, and each product runs on
+ * the engine's tiles in the same pool, so independent sub-products and the tiles
+ * inside them share the workers.
+ */
+public class MatrixChainMultiplier {
+
+    private final ForkJoinMatrixMultiplier engine;
+
+    public MatrixChainMultiplier() {
+        this(new ForkJoinMatrixMultiplier(64));
+    }
+
+    public MatrixChainMultiplier(ForkJoinMatrixMultiplier engine) {
+        this.engine = engine;
+    }
+
+    public Matrix multiply(Matrix... chain) {
+        return multiply(List.of(chain));
+    }
+
+    public Matrix multiply(List<Matrix> chain) {
+        Plan plan = plan(dimensions(chain));
+        if (chain.size() == 1) {
+            return chain.getFirst();
+        }
+        return engine.getPool().invoke(new ChainTask(chain, plan, 0, chain.size() - 1));
+    }
+
+    /**
+     * dims[i] x dims[i + 1] is the shape of the i-th matrix, so a chain of n
+     * matrices has n + 1 dimensions.
+     */
+    public static Plan plan(int[] dims) {
+        int n = dims.length - 1;
+        if (n < 1) {
+            throw new IllegalArgumentException("A chain needs at least one matrix");
+        }
+        // cost[i][j]: cheapest multiply-adds for Ai..Aj, split[i][j]: where its last product splits
+        long[][] cost = new long[n][n];
+        int[][] split = new int[n][n];
+        for (int length = 2; length <= n; length++) {
+            for (int i = 0; i + length <= n; i++) {
+                int j = i + length - 1;
+                cost[i][j] = Long.MAX_VALUE;
+                for (int s = i; s < j; s++) {
+                    long c = cost[i][s] + cost[s + 1][j] + (long) dims[i] * dims[s + 1] * dims[j + 1];
+                    if (c < cost[i][j]) {
+                        cost[i][j] = c;
+                        split[i][j] = s;
+                    }
+                }
+            }
+        }
+
+        long leftToRight = 0;
+        for (int s = 1; s < n; s++) {
+            leftToRight += (long) dims[0] * dims[s] * dims[s + 1];
+        }
+        return new Plan(split, cost[0][n - 1], leftToRight);
+    }
+
+    private static int[] dimensions(List<Matrix> chain) {
+        if (chain.isEmpty()) {
+            throw new IllegalArgumentException("A chain needs at least one matrix");
+        }
+        int[] dims = new int[chain.size() + 1];
+        dims[0] = chain.getFirst().getRows();
+        for (int i = 0; i < chain.size(); i++) {
+            Matrix m = chain.get(i);
+            if (m.getRows() != dims[i]) {
+                throw new IllegalArgumentException(
+                        String.format("Matrix %d is %dx%d but the previous one has %d columns",
+                                i, m.getRows(), m.getCols(), dims[i])
+                );
+            }
+            dims[i + 1] = m.getCols();
+        }
+        return dims;
+    }
+
+    // Product of chain[from..to], both operands of the last product computed concurrently
+    private class ChainTask extends RecursiveTask<Matrix> {
+
+        private final List<Matrix> chain;
+        private final Plan plan;
+        private final int from;       // Inclusive
+        private final int to;         // Inclusive
+
+        ChainTask(List<Matrix> chain, Plan plan, int from, int to) {
+            this.chain = chain;
+            this.plan = plan;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Matrix compute() {
+            if (from == to) {
+                return chain.get(from);
+            }
+            int s = plan.split[from][to];
+            ChainTask left = new ChainTask(chain, plan, from, s);
+            ChainTask right = new ChainTask(chain, plan, s + 1, to);
+            left.fork();
+            Matrix b = right.compute();
+            Matrix a = left.join();
+
+            double[] result = new double[a.getRows() * b.getCols()];
+            engine.multiplyInto(Block.of(a), Block.of(b), result, 0, b.getCols());
+            return Matrix.adopt(result, a.getRows(), b.getCols());
+        }
+    }
+
+    /** An optimal parenthesization and its cost in multiply-adds. */
+    public static final class Plan {
+
+        private final int[][] split;
+        private final long cost;
+        private final long leftToRightCost;
+
+        private Plan(int[][] split, long cost, long leftToRightCost) {
+            this.split = split;
+            this.cost = cost;
+            this.leftToRightCost = leftToRightCost;
+        }
+
+        public long getCost() {
+            return cost;
+        }
+
+        /** Cost of the naive ((A1 A2) A3) ... order, for comparison. */
+        public long getLeftToRightCost() {
+            return leftToRightCost;
+        }
+
+        /** The order as an expression over A1..An, e.g. "((A1 A2) (A3 A4))". */
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+            append(sb, 0, split.length - 1);
+            return sb.toString();
+        }
+
+        private void append(StringBuilder sb, int from, int to) {
+            if (from == to) {
+                sb.append('A').append(from + 1);
+                return;
+            }
+            sb.append('(');
+            append(sb, from, split[from][to]);
+            sb.append(' ');
+            append(sb, split[from][to] + 1, to);
+            sb.append(')');
+        }
+    }
+}
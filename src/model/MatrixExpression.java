@@ -0,0 +1,469 @@
+package model;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * Lazy matrix arithmetic: building an expression only records it, and
+ * {@link #evaluate} computes the whole graph into one new {@link Matrix}.
+ * <pre>{@code
+ * Matrix y = MatrixExpression.of(w).times(MatrixExpression.of(x))
+ *         .scale(0.5).plus(MatrixExpression.of(bias)).relu().evaluate();
+ * }</pre>
+ * Evaluation avoids the full-size temporaries an eager API would allocate:
+ * <ul>
+ * <li>Transposes never move data. They are pushed down to the source matrices
+ * while the graph is built ((A·B)ᵀ becomes Bᵀ·Aᵀ) and read as strided views.</li>
+ * <li>Scale factors on multiplication operands fold into GEMM's alpha, which
+ * the kernel applies while packing B.</li>
+ * <li>Elementwise operations (scale, plus, minus, hadamard, map, relu) on top
+ * of a product run as its store epilogue: each output tile is post-processed by
+ * the leaf that finished it, while the tile is still in cache, so the product
+ * is written to memory once, already in its final form.</li>
+ * <li>Without a product the elementwise graph runs as one parallel pass over
+ * row blocks, reading every source once and writing only the result.</li>
+ * </ul>
+ * Only products that are operands of other products, or a second product
+ * under the same elementwise graph, are materialized. Expressions are
+ * immutable and may be evaluated repeatedly, against different engines.
+ */
+public abstract class MatrixExpression {
+
+    private static final int ROW_GRAIN = 1 << 14;
+    private static final ForkJoinMatrixMultiplier DEFAULT_ENGINE = new ForkJoinMatrixMultiplier(64);
+
+    final int rows;
+    final int cols;
+
+    private MatrixExpression(int rows, int cols) {
+        this.rows = rows;
+        this.cols = cols;
+    }
+
+    public static MatrixExpression of(Matrix m) {
+        return new Source(Block.of(m));
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getCols() {
+        return cols;
+    }
+
+    public MatrixExpression times(MatrixExpression other) {
+        MatrixUtils.validateDimensions(rows, cols, other.rows, other.cols);
+        return new Product(this, other);
+    }
+
+    public MatrixExpression plus(MatrixExpression other) {
+        return new Combine(this, other, Double::sum, "+");
+    }
+
+    public MatrixExpression minus(MatrixExpression other) {
+        return new Combine(this, other, (x, y) -> x - y, "-");
+    }
+
+    /** Elementwise product. */
+    public MatrixExpression hadamard(MatrixExpression other) {
+        return new Combine(this, other, (x, y) -> x * y, "∘");
+    }
+
+    public MatrixExpression scale(double factor) {
+        return new Scale(this, factor);
+    }
+
+    /** Applies op to every element; op must be pure, it runs concurrently on many tiles. */
+    public MatrixExpression map(DoubleUnaryOperator op) {
+        return new Unary(this, op, "map");
+    }
+
+    /** max(0, x) elementwise. */
+    public MatrixExpression relu() {
+        return new Unary(this, x -> Math.max(0.0, x), "relu");
+    }
+
+    public MatrixExpression transpose() {
+        return transposed();
+    }
+
+    public Matrix evaluate() {
+        return evaluate(DEFAULT_ENGINE);
+    }
+
+    /** Computes the expression with the engine's kernel, threshold and pool. */
+    public Matrix evaluate(ForkJoinMatrixMultiplier engine) {
+        Lowering lowering = new Lowering(engine);
+        MatrixExpression body = lower(lowering);
+        Product anchor = lowering.anchor;
+        double[] out = new double[Math.multiplyExact(rows, cols)];
+
+        if (anchor == null) {
+            runElementwise(engine.getPool(), new Fused(body), out);
+        } else {
+            Block a = operand(anchor.left, engine);
+            Block b = operand(anchor.right, engine);
+            double alpha = operandScale(anchor.left) * operandScale(anchor.right);
+            engine.multiplyInto(a, b, alpha, out, body instanceof Tile ? null : new Fused(body));
+        }
+        return Matrix.adopt(out, rows, cols);
+    }
+
+    // Scale wrappers fold into alpha, sources are read in place, anything else is materialized
+    private static Block operand(MatrixExpression e, ForkJoinMatrixMultiplier engine) {
+        while (e instanceof Scale scale) {
+            e = scale.child;
+        }
+        return e instanceof Source source ? source.view : Block.of(e.evaluate(engine));
+    }
+
+    private static double operandScale(MatrixExpression e) {
+        double alpha = 1.0;
+        while (e instanceof Scale scale) {
+            alpha *= scale.factor;
+            e = scale.child;
+        }
+        return alpha;
+    }
+
+    private void runElementwise(ForkJoinPool pool, Fused epilogue, double[] out) {
+        int rowGrain = Math.max(1, ROW_GRAIN / cols);
+        ElementwiseTask task = new ElementwiseTask(epilogue, out, cols, 0, rows, rowGrain);
+        if (rows <= rowGrain) {
+            task.compute();
+        } else if (ForkJoinTask.getPool() == pool) {
+            task.invoke();
+        } else {
+            pool.invoke(task);
+        }
+    }
+
+    /** Same expression with rows and columns swapped, built without touching data. */
+    abstract MatrixExpression transposed();
+
+    /**
+     * Rewrites the graph for evaluation: the first product reached becomes the
+     * anchor (its tile is the epilogue's input), every other one is materialized.
+     */
+    abstract MatrixExpression lower(Lowering lowering);
+
+    /** Elementwise graphs only: writes elements (i, j .. j + len) into dst. */
+    abstract void row(Fused.Context ctx, int i, int j, int len, double[] dst, int slot);
+
+    /** Scratch rows needed below this node: one per pending right operand. */
+    int slots() {
+        return 0;
+    }
+
+    private static final class Lowering {
+        final ForkJoinMatrixMultiplier engine;
+        Product anchor;
+
+        Lowering(ForkJoinMatrixMultiplier engine) {
+            this.engine = engine;
+        }
+    }
+
+    private static final class Source extends MatrixExpression {
+        final Block view;
+
+        Source(Block view) {
+            super(view.rows, view.cols);
+            this.view = view;
+        }
+
+        @Override
+        MatrixExpression transposed() {
+            return new Source(view.transpose());
+        }
+
+        @Override
+        MatrixExpression lower(Lowering lowering) {
+            return this;
+        }
+
+        @Override
+        void row(Fused.Context ctx, int i, int j, int len, double[] dst, int slot) {
+            int src = view.index(i, j);
+            if (view.colStride == 1) {
+                System.arraycopy(view.data, src, dst, 0, len);
+            } else {
+                for (int k = 0; k < len; k++) {
+                    dst[k] = view.data[src + k * view.colStride];
+                }
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "[" + rows + "x" + cols + "]";
+        }
+    }
+
+    private static final class Product extends MatrixExpression {
+        final MatrixExpression left;
+        final MatrixExpression right;
+
+        Product(MatrixExpression left, MatrixExpression right) {
+            super(left.rows, right.cols);
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        MatrixExpression transposed() {
+            return new Product(right.transposed(), left.transposed());
+        }
+
+        @Override
+        MatrixExpression lower(Lowering lowering) {
+            if (lowering.anchor == null) {
+                lowering.anchor = this;
+                return new Tile(rows, cols);
+            }
+            return new Source(Block.of(evaluate(lowering.engine)));
+        }
+
+        @Override
+        void row(Fused.Context ctx, int i, int j, int len, double[] dst, int slot) {
+            throw new IllegalStateException("Products are replaced while lowering");
+        }
+
+        @Override
+        public String toString() {
+            return "(" + left + " · " + right + ")";
+        }
+    }
+
+    // The anchor product's output tile, read back by the epilogue
+    private static final class Tile extends MatrixExpression {
+
+        Tile(int rows, int cols) {
+            super(rows, cols);
+        }
+
+        @Override
+        MatrixExpression transposed() {
+            throw new IllegalStateException("Tiles only exist in lowered graphs");
+        }
+
+        @Override
+        MatrixExpression lower(Lowering lowering) {
+            return this;
+        }
+
+        @Override
+        void row(Fused.Context ctx, int i, int j, int len, double[] dst, int slot) {
+            System.arraycopy(ctx.out, ctx.offset + (i - ctx.startRow) * ctx.stride + (j - ctx.startCol), dst, 0, len);
+        }
+    }
+
+    private static final class Scale extends MatrixExpression {
+        final MatrixExpression child;
+        final double factor;
+
+        Scale(MatrixExpression child, double factor) {
+            super(child.rows, child.cols);
+            this.child = child;
+            this.factor = factor;
+        }
+
+        @Override
+        MatrixExpression transposed() {
+            return new Scale(child.transposed(), factor);
+        }
+
+        @Override
+        MatrixExpression lower(Lowering lowering) {
+            return new Scale(child.lower(lowering), factor);
+        }
+
+        @Override
+        void row(Fused.Context ctx, int i, int j, int len, double[] dst, int slot) {
+            child.row(ctx, i, j, len, dst, slot);
+            for (int k = 0; k < len; k++) {
+                dst[k] *= factor;
+            }
+        }
+
+        @Override
+        int slots() {
+            return child.slots();
+        }
+
+        @Override
+        public String toString() {
+            return factor + " * " + child;
+        }
+    }
+
+    private static final class Unary extends MatrixExpression {
+        final MatrixExpression child;
+        final DoubleUnaryOperator op;
+        final String name;
+
+        Unary(MatrixExpression child, DoubleUnaryOperator op, String name) {
+            super(child.rows, child.cols);
+            this.child = child;
+            this.op = op;
+            this.name = name;
+        }
+
+        @Override
+        MatrixExpression transposed() {
+            return new Unary(child.transposed(), op, name);
+        }
+
+        @Override
+        MatrixExpression lower(Lowering lowering) {
+            return new Unary(child.lower(lowering), op, name);
+        }
+
+        @Override
+        void row(Fused.Context ctx, int i, int j, int len, double[] dst, int slot) {
+            child.row(ctx, i, j, len, dst, slot);
+            for (int k = 0; k < len; k++) {
+                dst[k] = op.applyAsDouble(dst[k]);
+            }
+        }
+
+        @Override
+        int slots() {
+            return child.slots();
+        }
+
+        @Override
+        public String toString() {
+            return name + "(" + child + ")";
+        }
+    }
+
+    private static final class Combine extends MatrixExpression {
+        final MatrixExpression left;
+        final MatrixExpression right;
+        final DoubleBinaryOperator op;
+        final String symbol;
+
+        Combine(MatrixExpression left, MatrixExpression right, DoubleBinaryOperator op, String symbol) {
+            super(left.rows, left.cols);
+            if (left.rows != right.rows || left.cols != right.cols) {
+                throw new IllegalArgumentException(
+                        String.format("Cannot combine a %dx%d matrix with a %dx%d matrix elementwise",
+                                left.rows, left.cols, right.rows, right.cols)
+                );
+            }
+            this.left = left;
+            this.right = right;
+            this.op = op;
+            this.symbol = symbol;
+        }
+
+        @Override
+        MatrixExpression transposed() {
+            return new Combine(left.transposed(), right.transposed(), op, symbol);
+        }
+
+        @Override
+        MatrixExpression lower(Lowering lowering) {
+            return new Combine(left.lower(lowering), right.lower(lowering), op, symbol);
+        }
+
+        // The left side builds up in dst, the right side in this node's scratch row
+        @Override
+        void row(Fused.Context ctx, int i, int j, int len, double[] dst, int slot) {
+            left.row(ctx, i, j, len, dst, slot);
+            double[] other = ctx.scratch[slot];
+            right.row(ctx, i, j, len, other, slot + 1);
+            for (int k = 0; k < len; k++) {
+                dst[k] = op.applyAsDouble(dst[k], other[k]);
+            }
+        }
+
+        @Override
+        int slots() {
+            return Math.max(left.slots(), 1 + right.slots());
+        }
+
+        @Override
+        public String toString() {
+            return "(" + left + " " + symbol + " " + right + ")";
+        }
+    }
+
+    // Evaluates a lowered graph over one tile, a row segment at a time
+    private static final class Fused implements ForkJoinMatrixMultiplier.Epilogue {
+        private final MatrixExpression body;
+        private final int slots;
+
+        Fused(MatrixExpression body) {
+            this.body = body;
+            this.slots = body.slots();
+        }
+
+        @Override
+        public void apply(double[] out, int offset, int stride, int startRow, int endRow, int startCol, int endCol) {
+            int width = endCol - startCol;
+            Context ctx = new Context(out, offset, stride, startRow, startCol, new double[slots][width]);
+            double[] row = new double[width];
+            for (int i = startRow; i < endRow; i++) {
+                body.row(ctx, i, startCol, width, row, 0);
+                System.arraycopy(row, 0, out, offset + (i - startRow) * stride, width);
+            }
+        }
+
+        // One tile's output location and per-tile scratch rows
+        static final class Context {
+            final double[] out;
+            final int offset;
+            final int stride;
+            final int startRow;
+            final int startCol;
+            final double[][] scratch;
+
+            Context(double[] out, int offset, int stride, int startRow, int startCol, double[][] scratch) {
+                this.out = out;
+                this.offset = offset;
+                this.stride = stride;
+                this.startRow = startRow;
+                this.startCol = startCol;
+                this.scratch = scratch;
+            }
+        }
+    }
+
+    private static final class ElementwiseTask extends RecursiveAction {
+
+        private final Fused epilogue;
+        private final double[] out;
+        private final int cols;
+        private final int from;       // Inclusive
+        private final int to;         // Exclusive
+        private final int rowGrain;
+
+        ElementwiseTask(Fused epilogue, double[] out, int cols, int from, int to, int rowGrain) {
+            this.epilogue = epilogue;
+            this.out = out;
+            this.cols = cols;
+            this.from = from;
+            this.to = to;
+            this.rowGrain = rowGrain;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= rowGrain) {
+                epilogue.apply(out, from * cols, cols, from, to, 0, cols);
+                return;
+            }
+            int mid = from + (to - from) / 2;
+            ElementwiseTask top = new ElementwiseTask(epilogue, out, cols, from, mid, rowGrain);
+            top.fork();
+            new ElementwiseTask(epilogue, out, cols, mid, to, rowGrain).compute();
+            top.join();
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package model;
+
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Binary matrix file, accessed tile by tile so the matrix never has to fit on
+ * the heap. The data region is mapped once, when the file is opened, into a
+ * shared arena that {@link #close()} releases; tiles are copied straight out of
+ * (and into) that mapping.
+ * <pre>
+ * offset  size  field
+ *      0     4  magic "PMMX"
+ *      4     4  format version (1)
+ *      8     4  rows
+ *     12     4  cols
+ *     16    16  reserved (zero), keeps the data 32-byte aligned
+ *     32   8·n  rows·cols doubles, row-major
+ * </pre>
+ * Every field is little-endian.
+ */
+public class MatrixFile implements MatrixStorage, AutoCloseable {
+
+    public static final int HEADER_BYTES = 32;
+    private static final int MAGIC = 0x584D4D50; // "PMMX" read as a little-endian int
+    private static final int VERSION = 1;
+    private static final ValueLayout.OfDouble ELEMENT = ValueLayout.JAVA_DOUBLE.withOrder(ByteOrder.LITTLE_ENDIAN);
+
+    private final Path path;
+    private final FileChannel channel;
+    private final Arena arena;
+    private final MemorySegment data;   // The rows·cols doubles after the header
+    private final int rows;
+    private final int cols;
+    private final boolean writable;
+
+    private MatrixFile(Path path, FileChannel channel, int rows, int cols, boolean writable) throws IOException {
+        this.path = path;
+        this.channel = channel;
+        this.rows = rows;
+        this.cols = cols;
+        this.writable = writable;
+        this.arena = Arena.ofShared();
+        try {
+            this.data = channel.map(writable ? FileChannel.MapMode.READ_WRITE : FileChannel.MapMode.READ_ONLY,
+                    HEADER_BYTES, (long) rows * cols * Double.BYTES, arena);
+        } catch (IOException | RuntimeException e) {
+            arena.close();
+            throw e;
+        }
+    }
+
+    /** Creates (or truncates) a zero-filled rows x cols matrix file, opened for reading and writing. */
+    public static MatrixFile create(Path path, int rows, int cols) throws IOException {
+        if (rows <= 0 || cols <= 0) {
+            throw new IllegalArgumentException("Matrix cannot be null or empty.");
+        }
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        try {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(MAGIC).putInt(VERSION).putInt(rows).putInt(cols).rewind();
+            channel.write(header, 0);
+            // Extend to full size; the gap reads back as zeros
+            channel.write(ByteBuffer.allocate(1), HEADER_BYTES + (long) rows * cols * Double.BYTES - 1);
+            return new MatrixFile(path, channel, rows, cols, true);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public static MatrixFile open(Path path, boolean writable) throws IOException {
+        FileChannel channel = writable
+                ? FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)
+                : FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            if (channel.read(header, 0) != HEADER_BYTES || header.getInt(0) != MAGIC) {
+                throw new IOException(path + " is not a matrix file");
+            }
+            if (header.getInt(4) != VERSION) {
+                throw new IOException(path + " has unsupported format version " + header.getInt(4));
+            }
+            int rows = header.getInt(8);
+            int cols = header.getInt(12);
+            if (rows <= 0 || cols <= 0
+                    || channel.size() < HEADER_BYTES + (long) rows * cols * Double.BYTES) {
+                throw new IOException(path + " is truncated or has an invalid header");
+            }
+            return new MatrixFile(path, channel, rows, cols, writable);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public static void write(Path path, Matrix m) throws IOException {
+        try (MatrixFile file = create(path, m.getRows(), m.getCols())) {
+            file.writeTile(0, 0, m.getRows(), m.getCols(), m.raw(), 0, m.getCols());
+        }
+    }
+
+    public static Matrix read(Path path) throws IOException {
+        try (MatrixFile file = open(path, false)) {
+            double[] data = new double[Math.multiplyExact(file.rows, file.cols)];
+            file.readTile(0, 0, file.rows, file.cols, data, 0, file.cols);
+            return Matrix.adopt(data, file.rows, file.cols);
+        }
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    @Override
+    public int getRows() {
+        return rows;
+    }
+
+    @Override
+    public int getCols() {
+        return cols;
+    }
+
+    /** Copies the tile at (row, col) into dst, row i of the tile starting at dstOffset + i * dstStride. */
+    @Override
+    public void readTile(int row, int col, int tileRows, int tileCols,
+                         double[] dst, int dstOffset, int dstStride) {
+        checkTile(row, col, tileRows, tileCols);
+        for (int i = 0; i < tileRows; i++) {
+            MemorySegment.copy(data, ELEMENT, byteOffset(row + i, col), dst, dstOffset + i * dstStride, tileCols);
+        }
+    }
+
+    /** Writes src (same layout as {@link #readTile}) into the tile at (row, col). */
+    @Override
+    public void writeTile(int row, int col, int tileRows, int tileCols,
+                          double[] src, int srcOffset, int srcStride) throws IOException {
+        if (!writable) {
+            throw new IOException(path + " was opened read-only");
+        }
+        checkTile(row, col, tileRows, tileCols);
+        for (int i = 0; i < tileRows; i++) {
+            MemorySegment.copy(src, srcOffset + i * srcStride, data, ELEMENT, byteOffset(row + i, col), tileCols);
+        }
+    }
+
+    private long byteOffset(int row, int col) {
+        return ((long) row * cols + col) * Double.BYTES;
+    }
+
+    private void checkTile(int row, int col, int tileRows, int tileCols) {
+        if (row < 0 || col < 0 || tileRows < 0 || tileCols < 0
+                || row + tileRows > rows || col + tileCols > cols) {
+            throw new IndexOutOfBoundsException(
+                    String.format("Tile %dx%d at (%d, %d) is outside the %dx%d matrix in %s",
+                            tileRows, tileCols, row, col, rows, cols, path)
+            );
+        }
+    }
+
+    /** Flushes written tiles to the storage device (if writable), then unmaps and releases the file. */
+    @Override
+    public void close() throws IOException {
+        try (channel) {
+            if (writable) {
+                data.force();
+            }
+        } finally {
+            arena.close();
+        }
+    }
+}
@@ -2,4 +2,9 @@ package model;
 
 public interface MatrixMultiplier {
     Matrix multiply(Matrix a, Matrix b);
-}
\ No newline at end of file
+
+    /** This engine with every product checked by the verifier, see {@link VerifyingMatrixMultiplier}. */
+    default MatrixMultiplier verified(FreivaldsVerifier verifier) {
+        return new VerifyingMatrixMultiplier(this, verifier);
+    }
+}
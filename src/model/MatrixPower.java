@@ -0,0 +1,139 @@
+package model;
+
+/**
+ * A^k by exponentiation by squaring on the fork/join engine: about
+ * log2(k) + popcount(k) products instead of k - 1.
+ * <p>
+ * Each call allocates its working set once: the running square, one scratch
+ * matrix and one packing buffer, all n x n. The steps then only rotate
+ * references between them (every product writes the scratch matrix through
+ * {@link ForkJoinMatrixMultiplier#gemm}), so no step allocates a matrix.
+ * <p>
+ * {@link #apply} computes A^k · v. While k matrix-vector products cost no more
+ * than the {@link #productCount} products that form A^k plus the one that
+ * applies it, it runs them on two ping-pong vectors and never forms A^k; for
+ * larger k it forms A^k once and applies that.
+ */
+public class MatrixPower {
+
+    private final ForkJoinMatrixMultiplier engine;
+
+    public MatrixPower() {
+        this(new ForkJoinMatrixMultiplier(64));
+    }
+
+    public MatrixPower(ForkJoinMatrixMultiplier engine) {
+        this.engine = engine;
+    }
+
+    public Matrix power(Matrix a, long k) {
+        MatrixBuffer out = new MatrixBuffer(a.getRows(), a.getCols());
+        power(a, k, out);
+        return out.toMatrix();
+    }
+
+    /** Writes A^k into out (A^0 is the identity); out may be a itself. */
+    public void power(DenseMatrix a, long k, MatrixBuffer out) {
+        int n = checkSquare(a, k);
+        if (out.getRows() != n || out.getCols() != n) {
+            throw new IllegalArgumentException(
+                    String.format("Output is %dx%d, expected %dx%d", out.getRows(), out.getCols(), n, n)
+            );
+        }
+        if (k == 0) {
+            identity(out);
+            return;
+        }
+
+        MatrixBuffer base = MatrixBuffer.copyOf(a);
+        MatrixBuffer scratch = new MatrixBuffer(n, n);
+        double[] packBuffer = new double[n * n];
+        MatrixBuffer result = out;
+        boolean haveResult = false;
+
+        while (true) {
+            if ((k & 1) != 0) {
+                if (haveResult) {
+                    engine.gemm(false, false, 1.0, result, base, 0.0, scratch, packBuffer);
+                    MatrixBuffer t = result;
+                    result = scratch;
+                    scratch = t;
+                } else {
+                    result.copyFrom(base);
+                    haveResult = true;
+                }
+            }
+            k >>>= 1;
+            if (k == 0) {
+                break;
+            }
+            engine.gemm(false, false, 1.0, base, base, 0.0, scratch, packBuffer);
+            MatrixBuffer t = base;
+            base = scratch;
+            scratch = t;
+        }
+
+        if (result != out) {
+            out.copyFrom(result);
+        }
+    }
+
+    /** Returns A^k · v; v is not modified. */
+    public double[] apply(DenseMatrix a, long k, double[] v) {
+        int n = checkSquare(a, k);
+        if (v.length != n) {
+            throw new IllegalArgumentException(
+                    String.format("Vector has %d elements, expected %d", v.length, n)
+            );
+        }
+
+        // k·n² for the vector steps vs productCount(k)·n³ + n² to form and apply A^k
+        if ((double) (k - 1) > (double) productCount(k) * n) {
+            MatrixBuffer ak = new MatrixBuffer(n, n);
+            power(a, k, ak);
+            double[] y = new double[n];
+            MatVecTask.apply(engine.getPool(), Block.of(ak), v, y, false);
+            return y;
+        }
+
+        double[] x = v.clone();
+        double[] y = new double[n];
+        for (long step = 0; step < k; step++) {
+            MatVecTask.apply(engine.getPool(), Block.of(a), x, y, false);
+            double[] t = x;
+            x = y;
+            y = t;
+        }
+        return x;
+    }
+
+    /**
+     * Number of n x n products {@link #power} performs for A^k: floor(log2 k)
+     * squarings and popcount(k) - 1 multiplications into the result.
+     */
+    static int productCount(long k) {
+        if (k == 0) {
+            return 0;
+        }
+        return 63 - Long.numberOfLeadingZeros(k) + Long.bitCount(k) - 1;
+    }
+
+    private static int checkSquare(DenseMatrix a, long k) {
+        if (a.getRows() != a.getCols()) {
+            throw new IllegalArgumentException(
+                    String.format("Only square matrices have powers, got %dx%d", a.getRows(), a.getCols())
+            );
+        }
+        if (k < 0) {
+            throw new IllegalArgumentException("Exponent cannot be negative, got " + k);
+        }
+        return a.getRows();
+    }
+
+    private static void identity(MatrixBuffer out) {
+        out.fill(0.0);
+        for (int i = 0; i < out.getRows(); i++) {
+            out.set(i, i, 1.0);
+        }
+    }
+}
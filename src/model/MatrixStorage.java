@@ -0,0 +1,26 @@
+package model;
+
+import java.io.IOException;
+
+/**
+ * Row-major matrix storage that lives outside the Java heap and is accessed by
+ * copying tiles in and out of heap buffers. A tile is tileRows x tileCols elements
+ * starting at (row, col); row i of the tile maps to buf[offset + i * stride].
+ * <p>
+ * {@link OutOfCoreMatrixMultiplier} multiplies any two storages into a third,
+ * with only a few tiles ever on the heap.
+ */
+public interface MatrixStorage {
+
+    int getRows();
+
+    int getCols();
+
+    /** Copies the tile at (row, col) into dst. */
+    void readTile(int row, int col, int tileRows, int tileCols,
+                  double[] dst, int dstOffset, int dstStride) throws IOException;
+
+    /** Copies src into the tile at (row, col). */
+    void writeTile(int row, int col, int tileRows, int tileCols,
+                   double[] src, int srcOffset, int srcStride) throws IOException;
+}
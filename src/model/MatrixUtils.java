@@ -1,30 +1,44 @@
 package model;
 
-import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
 
 public class MatrixUtils {
 
-    private static final Random random = new Random();
+    // Randomly seeded per run; filled in parallel, see RandomMatrixGenerator
+    private static final RandomMatrixGenerator generator =
+            new RandomMatrixGenerator(ThreadLocalRandom.current().nextLong());
 
     public static Matrix randomMatrix(int rows, int cols) {
-        double[][] data = new double[rows][cols];
+        return generator.generate(rows, cols);
+    }
+
+    // Reproducible: the same seed and shape always give the same matrix
+    public static Matrix randomMatrix(int rows, int cols, long seed) {
+        return new RandomMatrixGenerator(seed).generate(rows, cols);
+    }
 
-        for (int i = 0; i < rows; i++)
-            for (int j = 0; j < cols; j++)
-                data[i][j] = random.nextDouble();
+    // Same values as randomMatrix, filled off the heap a few row blocks at a time
+    public static OffHeapMatrix randomOffHeapMatrix(int rows, int cols) {
+        return generator.generateOffHeap(rows, cols);
+    }
 
-        return new Matrix(data);
+    public static OffHeapMatrix randomOffHeapMatrix(int rows, int cols, long seed) {
+        return new RandomMatrixGenerator(seed).generateOffHeap(rows, cols);
     }
 
     public static void validateDimensions(Matrix a, Matrix b) {
-        if (a.getCols() != b.getRows()) {
+        validateDimensions(a.getRows(), a.getCols(), b.getRows(), b.getCols());
+    }
+
+    public static void validateDimensions(int aRows, int aCols, int bRows, int bCols) {
+        if (aCols != bRows) {
             throw new IllegalArgumentException(
                     String.format(
                             "Cannot multiply matrices: A is %d×%d but B is %d×%d. " +
                                     "A's column count (%d) must equal B's row count (%d).",
-                            a.getRows(), a.getCols(), b.getRows(), b.getCols(),
-                            a.getCols(), b.getRows()
+                            aRows, aCols, bRows, bCols,
+                            aCols, bRows
                     )
             );
         }
@@ -52,4 +66,17 @@ public class MatrixUtils {
         long end = System.nanoTime();
         return TimeUnit.NANOSECONDS.toMillis(end - start);
     }
+
+    // One warmup run, then the best of runs timed runs, in nanoseconds
+    public static long measureBest(Runnable task, int runs) {
+        task.run();
+
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < runs; i++) {
+            long start = System.nanoTime();
+            task.run();
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best;
+    }
 }
\ No newline at end of file
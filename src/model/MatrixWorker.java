@@ -0,0 +1,453 @@
+package model;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * One process of a {@link DistributedMatrixMultiplier} grid. Worker (i, j) holds
+ * block (i, j) of A, B and C (see {@link SummaGrid}) and runs the SUMMA steps
+ * itself: for each K panel, the worker owning the A half sends it straight to
+ * the other workers of its grid row, the worker owning the B half sends it to
+ * the other workers of its grid column, and every worker adds the panels'
+ * product to its C block on its own fork/join engine. The coordinator only
+ * loads the blocks before the run and gathers C after it. Run a worker as a
+ * separate JVM with {@code java model.MatrixWorker [port [bindHost [peerTimeoutSeconds]]]},
+ * or start it in-process for tests.
+ * <p>
+ * Each outgoing peer connection has a sender thread that streams the panels
+ * independently of the computation, and each incoming one a reader thread that
+ * decodes up to two panels ahead, so the next step's panels cross the network
+ * while the current one is multiplied. The compute loop times how long it
+ * waited for panels, which the coordinator reports as the communication not
+ * hidden behind computation. A broadcast is a direct send from the owner to
+ * each peer, which suits small grids; large ones would want a ring or tree.
+ * <p>
+ * A reader waits as long as its session is live for room to queue a panel, so
+ * a slow step never fails a run. Only the compute loop's wait for a panel that
+ * has not arrived is bounded, by the peer timeout: senders stream panels
+ * without waiting on their own computation, so that wait measures the peer and
+ * the network. Panels for a session that has ended, or that this worker never
+ * set up, are dropped.
+ * <p>
+ * The protocol is unauthenticated: anyone who can reach the port can load
+ * blocks into the worker and read its results. By default the worker only
+ * listens on the loopback interface; a grid spanning several hosts needs a
+ * bindHost that the other workers and the coordinator can reach, such as a
+ * private interface's address, and should only ever run on a trusted network.
+ */
+public final class MatrixWorker implements AutoCloseable {
+
+    private static final int PANELS_AHEAD = 2;
+    private static final Duration DEFAULT_PEER_TIMEOUT = Duration.ofSeconds(60);
+    // How often a reader waiting for room in a queue checks that its session is still live
+    private static final long LIVENESS_CHECK_MILLIS = 200;
+    // Queued by a reader whose peer connection broke, so the run fails instead of waiting
+    private static final Block PEER_FAILED = new Block(new double[0], 0, 0, 0, 0);
+
+    private final ServerSocket server;
+    private final ForkJoinMatrixMultiplier engine;
+    private final long peerTimeoutNanos;
+    private final Set<Socket> connections = ConcurrentHashMap.newKeySet();
+    private final Map<Long, Inbox> inboxes = new ConcurrentHashMap<>();
+    private final Thread acceptor;
+
+    /** Listens on the loopback interface; port 0 picks a free port. */
+    public MatrixWorker(int port) throws IOException {
+        this(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), new ForkJoinMatrixMultiplier(64));
+    }
+
+    public MatrixWorker(InetSocketAddress bindAddress, ForkJoinMatrixMultiplier engine) throws IOException {
+        this(bindAddress, engine, DEFAULT_PEER_TIMEOUT);
+    }
+
+    /** peerTimeout bounds how long a run waits for a peer's next panel to arrive. */
+    public MatrixWorker(InetSocketAddress bindAddress, ForkJoinMatrixMultiplier engine, Duration peerTimeout)
+            throws IOException {
+        if (peerTimeout.isNegative() || peerTimeout.isZero()) {
+            throw new IllegalArgumentException("Peer timeout must be positive, got " + peerTimeout);
+        }
+        this.peerTimeoutNanos = peerTimeout.toNanos();
+        this.server = new ServerSocket();
+        server.bind(bindAddress);
+        this.engine = engine;
+        this.acceptor = Thread.ofPlatform().daemon().name("matrix-worker-" + getPort()).start(this::acceptLoop);
+    }
+
+    public int getPort() {
+        return server.getLocalPort();
+    }
+
+    public InetSocketAddress getAddress() {
+        return new InetSocketAddress(server.getInetAddress(), server.getLocalPort());
+    }
+
+    /** Stops accepting and drops every open connection. */
+    @Override
+    public void close() throws IOException {
+        server.close();
+        for (Socket socket : connections) {
+            socket.close();
+        }
+    }
+
+    private void acceptLoop() {
+        while (!server.isClosed()) {
+            try {
+                Socket socket = server.accept();
+                connections.add(socket);
+                Thread.ofPlatform().daemon().name("matrix-worker-connection").start(() -> serve(socket));
+            } catch (IOException e) {
+                if (!server.isClosed()) {
+                    System.err.println("Worker could not accept a connection: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    // A coordinator session, or panels from a peer if the connection opens with PEER
+    private void serve(Socket socket) {
+        try (socket;
+             DataInputStream in = new DataInputStream(
+                     new BufferedInputStream(socket.getInputStream(), WireFormat.CHUNK_BYTES));
+             DataOutputStream out = new DataOutputStream(
+                     new BufferedOutputStream(socket.getOutputStream(), WireFormat.CHUNK_BYTES))) {
+            socket.setTcpNoDelay(true);
+            byte op = in.readByte();
+            if (op == WireFormat.PEER) {
+                receivePanels(socket, in);
+            } else {
+                coordinate(op, in, out);
+            }
+        } catch (EOFException _) {
+            // Coordinator went away without a SHUTDOWN
+        } catch (IOException | RuntimeException e) {
+            if (!socket.isClosed()) {
+                System.err.println("Worker connection failed: " + e.getMessage());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            connections.remove(socket);
+        }
+    }
+
+    private void coordinate(byte op, DataInputStream in, DataOutputStream out)
+            throws IOException, InterruptedException {
+        byte[] scratch = new byte[WireFormat.CHUNK_BYTES];
+        Session session = null;
+        try {
+            while (true) {
+                if (op != WireFormat.SETUP && op != WireFormat.SHUTDOWN && session == null) {
+                    throw new IOException("Opcode " + op + " before SETUP");
+                }
+                switch (op) {
+                    case WireFormat.SETUP -> {
+                        if (session != null) {
+                            session.end();
+                        }
+                        session = new Session(in);
+                        out.writeLong(session.id);
+                        out.flush();
+                    }
+                    case WireFormat.LOAD_A -> session.load(in, scratch, session.a);
+                    case WireFormat.LOAD_B -> session.load(in, scratch, session.b);
+                    case WireFormat.RUN -> {
+                        session.run();
+                        out.writeLong(session.computeNanos);
+                        out.writeLong(session.waitNanos);
+                        out.writeLong(session.peerBytes.get());
+                        out.flush();
+                    }
+                    case WireFormat.GATHER -> {
+                        int bandRows = in.readInt();
+                        if (bandRows < 1) {
+                            throw new IOException("Invalid gather band of " + bandRows + " rows");
+                        }
+                        Block c = session.c;
+                        for (int row = 0; row < c.rows; row += bandRows) {
+                            WireFormat.writeTile(out, c.sub(row, 0, Math.min(bandRows, c.rows - row), c.cols), scratch);
+                        }
+                        out.flush();
+                    }
+                    case WireFormat.SHUTDOWN -> {
+                        return;
+                    }
+                    default -> throw new IOException("Unknown opcode " + op);
+                }
+                op = in.readByte();
+            }
+        } finally {
+            if (session != null) {
+                session.end();
+            }
+        }
+    }
+
+    // Queues one peer's panels for the session's run, in the order they were sent
+    private void receivePanels(Socket socket, DataInputStream in) throws IOException, InterruptedException {
+        long sessionId = in.readLong();
+        int from = in.readInt();
+        // Every worker has set the session up before any of them runs it, so no inbox means it has ended
+        Inbox inbox = inboxes.get(sessionId);
+        if (inbox == null) {
+            return;
+        }
+        inbox.sockets.add(socket);
+        if (inbox.ended) {
+            return;
+        }
+        BlockingQueue<Block> panels = inbox.from(from);
+        byte[] scratch = new byte[WireFormat.CHUNK_BYTES];
+        try {
+            while (true) {
+                byte op = in.readByte();
+                if (op == WireFormat.SHUTDOWN) {
+                    return;
+                }
+                if (op != WireFormat.PANEL) {
+                    throw new IOException("Unknown peer opcode " + op);
+                }
+                Block panel = WireFormat.readTile(in, scratch);
+                while (!panels.offer(panel, LIVENESS_CHECK_MILLIS, TimeUnit.MILLISECONDS)) {
+                    if (inbox.ended) {
+                        return;
+                    }
+                }
+            }
+        } catch (IOException e) {
+            panels.clear();
+            panels.offer(PEER_FAILED);
+            throw e;
+        }
+    }
+
+    // Panels arriving from peers for one session, by the sender's grid index
+    private static final class Inbox {
+        final Map<Integer, BlockingQueue<Block>> queues = new ConcurrentHashMap<>();
+        final Set<Socket> sockets = ConcurrentHashMap.newKeySet();
+        volatile boolean ended;
+
+        BlockingQueue<Block> from(int index) {
+            return queues.computeIfAbsent(index, _ -> new ArrayBlockingQueue<>(PANELS_AHEAD));
+        }
+    }
+
+    // This worker's part of one product
+    private final class Session {
+        final long id;
+        final SummaGrid grid;
+        final int row;
+        final int col;
+        final InetSocketAddress[] workers;
+        final Block a;
+        final Block b;
+        final Block c;
+        final Inbox inbox = new Inbox();
+        final AtomicLong peerBytes = new AtomicLong();
+        long computeNanos;
+        long waitNanos;
+
+        Session(DataInputStream in) throws IOException {
+            this.id = in.readLong();
+            int gridRows = in.readInt();
+            int gridCols = in.readInt();
+            int index = in.readInt();
+            this.grid = new SummaGrid(gridRows, gridCols, in.readInt(), in.readInt(), in.readInt(), in.readInt());
+            if (gridRows < 1 || gridCols < 1 || index < 0 || index >= gridRows * gridCols
+                    || grid.m < 0 || grid.n < 0 || grid.p < 0 || grid.panelWidth < 1) {
+                throw new IOException(String.format("Invalid setup: worker %d of a %dx%d grid, %dx%d * %dx%d, panel %d",
+                        index, gridRows, gridCols, grid.m, grid.n, grid.n, grid.p, grid.panelWidth));
+            }
+            this.row = index / gridCols;
+            this.col = index % gridCols;
+            this.workers = new InetSocketAddress[gridRows * gridCols];
+            for (int w = 0; w < workers.length; w++) {
+                workers[w] = InetSocketAddress.createUnresolved(in.readUTF(), in.readInt());
+            }
+            int rows = grid.rowStart(row + 1) - grid.rowStart(row);
+            int cols = grid.colStart(col + 1) - grid.colStart(col);
+            this.a = dense(rows, grid.aDepthStart(col + 1) - grid.aDepthStart(col));
+            this.b = dense(grid.bDepthStart(row + 1) - grid.bDepthStart(row), cols);
+            this.c = dense(rows, cols);
+            if (inboxes.putIfAbsent(id, inbox) != null) {
+                throw new IOException("Session " + id + " is already set up on this worker");
+            }
+        }
+
+        // Stops taking panels; readers still going drop theirs and exit
+        void end() {
+            inbox.ended = true;
+            inboxes.remove(id, inbox);
+            for (Socket socket : inbox.sockets) {
+                closeQuietly(socket);
+            }
+        }
+
+        private static Block dense(int rows, int cols) {
+            return new Block(new double[Math.multiplyExact(rows, cols)], 0, cols, rows, cols);
+        }
+
+        void load(DataInputStream in, byte[] scratch, Block block) throws IOException {
+            int first = in.readInt();
+            int count = in.readInt();
+            if (first < 0 || count < 0 || first + count > block.rows) {
+                throw new IOException(String.format("Rows [%d, %d) are outside a %d-row block",
+                        first, first + count, block.rows));
+            }
+            WireFormat.readTile(in, scratch, block.sub(first, 0, count, block.cols));
+        }
+
+        void run() throws IOException, InterruptedException {
+            if (inbox.ended) {
+                throw new IOException("Session " + id + " has already run");
+            }
+            List<SummaGrid.Step> steps = grid.steps();
+            List<Socket> outgoing = new ArrayList<>();
+            List<Thread> senders = new ArrayList<>();
+            List<Throwable> failures = new ArrayList<>();
+            boolean ownsA = false;
+            boolean ownsB = false;
+            for (SummaGrid.Step step : steps) {
+                ownsA |= step.aCol == col;
+                ownsB |= step.bRow == row;
+            }
+            try {
+                for (int peer = 0; peer < grid.gridCols && ownsA; peer++) {
+                    if (peer != col) {
+                        senders.add(startSender(grid.index(row, peer), true, steps, outgoing, failures));
+                    }
+                }
+                for (int peer = 0; peer < grid.gridRows && ownsB; peer++) {
+                    if (peer != row) {
+                        senders.add(startSender(grid.index(peer, col), false, steps, outgoing, failures));
+                    }
+                }
+
+                computeNanos = 0;
+                waitNanos = 0;
+                for (SummaGrid.Step step : steps) {
+                    long waitStart = System.nanoTime();
+                    Block panelA = step.aCol == col ? panelA(step) : take(grid.index(row, step.aCol));
+                    Block panelB = step.bRow == row ? panelB(step) : take(grid.index(step.bRow, col));
+                    long start = System.nanoTime();
+                    waitNanos += start - waitStart;
+
+                    int width = step.k1 - step.k0;
+                    if (panelA.rows != c.rows || panelA.cols != width || panelB.rows != width || panelB.cols != c.cols) {
+                        throw new IOException(String.format("Panel %dx%d * %dx%d does not fit a %dx%d block",
+                                panelA.rows, panelA.cols, panelB.rows, panelB.cols, c.rows, c.cols));
+                    }
+                    if (c.rows > 0 && c.cols > 0) {
+                        engine.multiplyInto(panelA, panelB, c.data, 0, c.cols);
+                    }
+                    computeNanos += System.nanoTime() - start;
+                }
+                for (Thread sender : senders) {
+                    sender.join();
+                }
+                synchronized (failures) {
+                    if (!failures.isEmpty()) {
+                        throw new IOException("Sending panels to a peer failed", failures.getFirst());
+                    }
+                }
+            } finally {
+                // Stops senders and readers still going after a failure; both are done otherwise
+                synchronized (outgoing) {
+                    for (Socket socket : outgoing) {
+                        closeQuietly(socket);
+                    }
+                }
+                end();
+            }
+        }
+
+        private Block panelA(SummaGrid.Step step) {
+            return a.sub(0, step.k0 - grid.aDepthStart(col), a.rows, step.k1 - step.k0);
+        }
+
+        private Block panelB(SummaGrid.Step step) {
+            return b.sub(step.k0 - grid.bDepthStart(row), 0, step.k1 - step.k0, b.cols);
+        }
+
+        private Block take(int from) throws IOException, InterruptedException {
+            Block panel = inbox.from(from).poll(peerTimeoutNanos, TimeUnit.NANOSECONDS);
+            if (panel == null || panel == PEER_FAILED) {
+                throw new IOException("No panel from worker " + from + (panel == null ? " in time" : ", its link broke"));
+            }
+            return panel;
+        }
+
+        // Streams this worker's A panels (or B panels) to one peer, in step order
+        private Thread startSender(int to, boolean sendA, List<SummaGrid.Step> steps,
+                                   List<Socket> outgoing, List<Throwable> failures) {
+            InetSocketAddress address = workers[to];
+            // Registered before the thread starts, so a failing run can always close it
+            Socket socket = new Socket();
+            synchronized (outgoing) {
+                outgoing.add(socket);
+            }
+            return Thread.ofPlatform().daemon().name("matrix-worker-sender").start(() -> {
+                byte[] scratch = new byte[WireFormat.CHUNK_BYTES];
+                try (socket) {
+                    socket.connect(new InetSocketAddress(address.getHostString(), address.getPort()));
+                    socket.setTcpNoDelay(true);
+                    DataOutputStream out = new DataOutputStream(
+                            new BufferedOutputStream(socket.getOutputStream(), WireFormat.CHUNK_BYTES));
+                    out.writeByte(WireFormat.PEER);
+                    out.writeLong(id);
+                    out.writeInt(grid.index(row, col));
+                    long sent = 1 + Long.BYTES + Integer.BYTES;
+                    for (SummaGrid.Step step : steps) {
+                        if (sendA ? step.aCol == col : step.bRow == row) {
+                            out.writeByte(WireFormat.PANEL);
+                            sent += 1 + WireFormat.writeTile(out, sendA ? panelA(step) : panelB(step), scratch);
+                            out.flush();
+                        }
+                    }
+                    out.writeByte(WireFormat.SHUTDOWN);
+                    out.flush();
+                    peerBytes.addAndGet(sent + 1);
+                } catch (IOException e) {
+                    synchronized (failures) {
+                        failures.add(e);
+                    }
+                }
+            });
+        }
+    }
+
+    private static void closeQuietly(Socket socket) {
+        try {
+            socket.close();
+        } catch (IOException _) {
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 0;
+        InetAddress host = args.length > 1 ? InetAddress.getByName(args[1]) : InetAddress.getLoopbackAddress();
+        Duration peerTimeout = args.length > 2 ? Duration.ofSeconds(Long.parseLong(args[2])) : DEFAULT_PEER_TIMEOUT;
+        MatrixWorker worker = new MatrixWorker(new InetSocketAddress(host, port), new ForkJoinMatrixMultiplier(64), peerTimeout);
+        // The coordinator's launcher reads the port from this line
+        System.out.println("MatrixWorker listening on " + worker.getPort());
+        worker.acceptor.join();
+    }
+}
@@ -0,0 +1,146 @@
+package model;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+
+/**
+ * Mutable row-major matrix in native memory, so large operands and results put
+ * no pressure on the garbage collector. Element (row, col) is the double at byte
+ * offset (row * cols + col) * 8; rows start on a cache-line boundary only when
+ * cols is a multiple of 8.
+ * <p>
+ * Lifetime is explicit. {@link #allocate(int, int)} owns a shared arena that
+ * {@link #close()} frees; {@link #allocate(Arena, int, int)} lives as long as the
+ * caller's arena and close() leaves it alone. Any access after the memory is
+ * freed throws IllegalStateException. The arena must allow access from other
+ * threads (shared, auto or global) for the matrix to be used by the multipliers.
+ */
+public class OffHeapMatrix implements MatrixStorage, AutoCloseable {
+
+    private static final long ALIGNMENT = 64;
+
+    private final Arena ownedArena;   // Null when the caller manages the lifetime
+    private final MemorySegment segment;
+    private final int rows;
+    private final int cols;
+
+    private OffHeapMatrix(Arena ownedArena, MemorySegment segment, int rows, int cols) {
+        this.ownedArena = ownedArena;
+        this.segment = segment;
+        this.rows = rows;
+        this.cols = cols;
+    }
+
+    /** A zero-filled matrix with its own arena, freed by {@link #close()}. */
+    public static OffHeapMatrix allocate(int rows, int cols) {
+        Arena arena = Arena.ofShared();
+        try {
+            return new OffHeapMatrix(arena, allocateSegment(arena, rows, cols), rows, cols);
+        } catch (RuntimeException e) {
+            arena.close();
+            throw e;
+        }
+    }
+
+    /** A zero-filled matrix allocated in (and freed with) the given arena. */
+    public static OffHeapMatrix allocate(Arena arena, int rows, int cols) {
+        return new OffHeapMatrix(null, allocateSegment(arena, rows, cols), rows, cols);
+    }
+
+    public static OffHeapMatrix copyOf(Matrix m) {
+        OffHeapMatrix copy = allocate(m.getRows(), m.getCols());
+        copy.writeTile(0, 0, m.getRows(), m.getCols(), m.raw(), 0, m.stride());
+        return copy;
+    }
+
+    private static MemorySegment allocateSegment(Arena arena, int rows, int cols) {
+        if (rows <= 0 || cols <= 0) {
+            throw new IllegalArgumentException("Matrix cannot be null or empty.");
+        }
+        return arena.allocate(Math.multiplyExact((long) rows * cols, Double.BYTES), ALIGNMENT);
+    }
+
+    /** Copies the elements back onto the heap. */
+    public Matrix toMatrix() {
+        double[] data = new double[Math.multiplyExact(rows, cols)];
+        readTile(0, 0, rows, cols, data, 0, cols);
+        return Matrix.adopt(data, rows, cols);
+    }
+
+    @Override
+    public int getRows() {
+        return rows;
+    }
+
+    @Override
+    public int getCols() {
+        return cols;
+    }
+
+    public double get(int row, int col) {
+        checkIndex(row, col);
+        return segment.getAtIndex(ValueLayout.JAVA_DOUBLE, (long) row * cols + col);
+    }
+
+    public void set(int row, int col, double value) {
+        checkIndex(row, col);
+        segment.setAtIndex(ValueLayout.JAVA_DOUBLE, (long) row * cols + col, value);
+    }
+
+    /** The backing memory, for handing the matrix to native code. */
+    public MemorySegment segment() {
+        return segment;
+    }
+
+    @Override
+    public void readTile(int row, int col, int tileRows, int tileCols,
+                         double[] dst, int dstOffset, int dstStride) {
+        checkTile(row, col, tileRows, tileCols);
+        for (int i = 0; i < tileRows; i++) {
+            MemorySegment.copy(segment, ValueLayout.JAVA_DOUBLE, byteOffset(row + i, col),
+                    dst, dstOffset + i * dstStride, tileCols);
+        }
+    }
+
+    @Override
+    public void writeTile(int row, int col, int tileRows, int tileCols,
+                          double[] src, int srcOffset, int srcStride) {
+        checkTile(row, col, tileRows, tileCols);
+        for (int i = 0; i < tileRows; i++) {
+            MemorySegment.copy(src, srcOffset + i * srcStride,
+                    segment, ValueLayout.JAVA_DOUBLE, byteOffset(row + i, col), tileCols);
+        }
+    }
+
+    private long byteOffset(int row, int col) {
+        return ((long) row * cols + col) * Double.BYTES;
+    }
+
+    private void checkIndex(int row, int col) {
+        if (row < 0 || row >= rows || col < 0 || col >= cols) {
+            throw new IndexOutOfBoundsException(
+                    String.format("Invalid indices (%d, %d) for matrix of size %dx%d",
+                            row, col, rows, cols)
+            );
+        }
+    }
+
+    private void checkTile(int row, int col, int tileRows, int tileCols) {
+        if (row < 0 || col < 0 || tileRows < 0 || tileCols < 0
+                || row + tileRows > rows || col + tileCols > cols) {
+            throw new IndexOutOfBoundsException(
+                    String.format("Tile %dx%d at (%d, %d) is outside the %dx%d matrix",
+                            tileRows, tileCols, row, col, rows, cols)
+            );
+        }
+    }
+
+    /** Frees the memory if this matrix owns its arena; a no-op otherwise. */
+    @Override
+    public void close() {
+        if (ownedArena != null) {
+            ownedArena.close();
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package model;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Multiplies matrices that need not fit on the heap: {@link MatrixFile}s, or any
+ * other {@link MatrixStorage} such as an {@link OffHeapMatrix}. C is produced one
+ * tileSize x tileSize tile at a time; each C tile accumulates the products of the
+ * matching A row band and B column band, tileSize columns of K per step, on the
+ * fork/join engine.
+ * <p>
+ * A single I/O thread prefetches the next A/B tile pair and writes back the
+ * previous C tile while the current step computes. Heap use is bounded by about
+ * 7 x tileSize² doubles: double-buffered A, B and C tiles plus the packed B tile.
+ */
+public class OutOfCoreMatrixMultiplier {
+
+    private final int tileSize;
+    private final ForkJoinMatrixMultiplier engine;
+
+    public OutOfCoreMatrixMultiplier(int tileSize) {
+        this(tileSize, new ForkJoinMatrixMultiplier(64));
+    }
+
+    public OutOfCoreMatrixMultiplier(int tileSize, ForkJoinMatrixMultiplier engine) {
+        if (tileSize < 1) {
+            throw new IllegalArgumentException("Tile size must be a positive integer, got " + tileSize);
+        }
+        this.tileSize = tileSize;
+        this.engine = engine;
+    }
+
+    /** Largest tile size (a multiple of 64, at least 64) whose buffers fit in heapBytes. */
+    public static OutOfCoreMatrixMultiplier forHeapBudget(long heapBytes, ForkJoinMatrixMultiplier engine) {
+        long tile = (long) Math.sqrt(heapBytes / (7.0 * Double.BYTES));
+        return new OutOfCoreMatrixMultiplier((int) Math.max(64, tile / 64 * 64), engine);
+    }
+
+    public int getTileSize() {
+        return tileSize;
+    }
+
+    /** Computes a * b from the files at a and b into a new (or truncated) file at c. */
+    public void multiply(Path a, Path b, Path c) throws IOException {
+        try (MatrixFile fileA = MatrixFile.open(a, false);
+             MatrixFile fileB = MatrixFile.open(b, false)) {
+            MatrixUtils.validateDimensions(fileA.getRows(), fileA.getCols(), fileB.getRows(), fileB.getCols());
+            try (MatrixFile fileC = MatrixFile.create(c, fileA.getRows(), fileB.getCols())) {
+                multiplyTiles(fileA, fileB, fileC);
+            }
+        }
+    }
+
+    /** Multiplies off-heap matrices into a new one that owns its memory (see {@link OffHeapMatrix#close()}). */
+    public OffHeapMatrix multiply(OffHeapMatrix a, OffHeapMatrix b) {
+        MatrixUtils.validateDimensions(a.getRows(), a.getCols(), b.getRows(), b.getCols());
+        OffHeapMatrix c = OffHeapMatrix.allocate(a.getRows(), b.getCols());
+        try {
+            multiply(a, b, c);
+        } catch (IOException e) {
+            // Unreachable: off-heap tile copies do no I/O
+            c.close();
+            throw new UncheckedIOException(e);
+        } catch (RuntimeException e) {
+            c.close();
+            throw e;
+        }
+        return c;
+    }
+
+    /** Computes a * b into c, which must already have a's rows and b's columns. */
+    public void multiply(MatrixStorage a, MatrixStorage b, MatrixStorage c) throws IOException {
+        MatrixUtils.validateDimensions(a.getRows(), a.getCols(), b.getRows(), b.getCols());
+        if (c.getRows() != a.getRows() || c.getCols() != b.getCols()) {
+            throw new IllegalArgumentException(
+                    String.format("Result storage is %dx%d, expected %dx%d",
+                            c.getRows(), c.getCols(), a.getRows(), b.getCols())
+            );
+        }
+        multiplyTiles(a, b, c);
+    }
+
+    private void multiplyTiles(MatrixStorage a, MatrixStorage b, MatrixStorage c) throws IOException {
+        int m = a.getRows();
+        int n = a.getCols();
+        int p = b.getCols();
+        int t = tileSize;
+
+        // Every (C tile, K step) pair in execution order, so the next load is always known
+        int rowTiles = (m + t - 1) / t;
+        int colTiles = (p + t - 1) / t;
+        int kTiles = (n + t - 1) / t;
+        int steps = rowTiles * colTiles * kTiles;
+
+        TileBuffers[] inputs = {new TileBuffers(t), new TileBuffers(t)};
+        double[][] outputs = {new double[t * t], new double[t * t]};
+        CompletableFuture<?>[] pendingWrites = new CompletableFuture<?>[2];
+
+        ExecutorService io = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "out-of-core-io");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            CompletableFuture<Void> nextLoad = load(io, a, b, inputs[0], 0, kTiles, colTiles);
+
+            for (int step = 0; step < steps; step++) {
+                int kStep = step % kTiles;
+                int cTile = step / kTiles;
+                int i0 = cTile / colTiles * t;
+                int j0 = cTile % colTiles * t;
+                int rows = Math.min(t, m - i0);
+                int cols = Math.min(t, p - j0);
+                int depth = Math.min(t, n - kStep * t);
+
+                TileBuffers current = inputs[step % 2];
+                join(nextLoad);
+                nextLoad = step + 1 < steps
+                        ? load(io, a, b, inputs[(step + 1) % 2], step + 1, kTiles, colTiles)
+                        : null;
+
+                double[] out = outputs[cTile % 2];
+                if (kStep == 0) {
+                    // The buffer may still be in flight from two C tiles ago
+                    join(pendingWrites[cTile % 2]);
+                    Arrays.fill(out, 0, rows * cols, 0.0);
+                }
+
+                engine.multiplyInto(new Block(current.a, 0, depth, rows, depth),
+                        new Block(current.b, 0, cols, depth, cols), out, 0, cols);
+
+                if (kStep == kTiles - 1) {
+                    pendingWrites[cTile % 2] = CompletableFuture.runAsync(
+                            () -> uncheckedWrite(c, i0, j0, rows, cols, out), io);
+                }
+            }
+
+            join(pendingWrites[0]);
+            join(pendingWrites[1]);
+        } finally {
+            io.shutdownNow();
+        }
+    }
+
+    private CompletableFuture<Void> load(ExecutorService io, MatrixStorage a, MatrixStorage b, TileBuffers target,
+                                         int step, int kTiles, int colTiles) {
+        int t = tileSize;
+        int kStep = step % kTiles;
+        int cTile = step / kTiles;
+        int i0 = cTile / colTiles * t;
+        int j0 = cTile % colTiles * t;
+        int k0 = kStep * t;
+        int rows = Math.min(t, a.getRows() - i0);
+        int cols = Math.min(t, b.getCols() - j0);
+        int depth = Math.min(t, a.getCols() - k0);
+
+        return CompletableFuture.runAsync(() -> {
+            try {
+                a.readTile(i0, k0, rows, depth, target.a, 0, depth);
+                b.readTile(k0, j0, depth, cols, target.b, 0, cols);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, io);
+    }
+
+    private static void uncheckedWrite(MatrixStorage c, int row, int col, int rows, int cols, double[] tile) {
+        try {
+            c.writeTile(row, col, rows, cols, tile, 0, cols);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Waits for an I/O step and rethrows its IOException as such
+    private static void join(CompletableFuture<?> future) throws IOException {
+        if (future == null) {
+            return;
+        }
+        try {
+            future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof UncheckedIOException io) {
+                throw io.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private static final class TileBuffers {
+        final double[] a;
+        final double[] b;
+
+        TileBuffers(int tileSize) {
+            this.a = new double[tileSize * tileSize];
+            this.b = new double[tileSize * tileSize];
+        }
+    }
+}
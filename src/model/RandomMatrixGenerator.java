@@ -0,0 +1,194 @@
+package model;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.random.RandomGenerator;
+
+/**
+ * Seeded, parallel random matrix generation. Each matrix is cut into blocks of
+ * whole rows (about 16K elements each, a function of the shape only), and every
+ * block draws from its own {@link SplittableRandom}, split off in block order
+ * before any filling starts. Blocks are then filled in parallel, so the result
+ * depends on the seed, the shape and the number of earlier calls, but never on
+ * the number of threads or on scheduling.
+ * <p>
+ * A generator is safe to share: each call takes the next split of the root.
+ */
+public class RandomMatrixGenerator {
+
+    private static final int BLOCK_ELEMENTS = 1 << 14;
+
+    /** Draws one element from the block's generator. */
+    @FunctionalInterface
+    public interface Distribution {
+        double sample(RandomGenerator random);
+
+        /** Uniform in [0, 1), the distribution of {@link MatrixUtils#randomMatrix}. */
+        static Distribution uniform() {
+            return RandomGenerator::nextDouble;
+        }
+
+        /** Uniform in [low, high). */
+        static Distribution uniform(double low, double high) {
+            if (!(low < high)) {
+                throw new IllegalArgumentException(
+                        String.format("Empty range [%s, %s)", low, high));
+            }
+            return random -> random.nextDouble(low, high);
+        }
+
+        static Distribution normal(double mean, double stdDev) {
+            if (!(stdDev >= 0)) {
+                throw new IllegalArgumentException("Standard deviation cannot be negative, got " + stdDev);
+            }
+            return random -> random.nextGaussian(mean, stdDev);
+        }
+
+        /** Whole numbers, uniform in [low, high] inclusive. */
+        static Distribution integers(int low, int high) {
+            if (low > high) {
+                throw new IllegalArgumentException(
+                        String.format("Empty range [%d, %d]", low, high));
+            }
+            return random -> random.nextLong(low, (long) high + 1);
+        }
+
+        /** Each element is nonzero with the given probability, drawn from nonzero. */
+        static Distribution sparse(double density, Distribution nonzero) {
+            if (!(density >= 0 && density <= 1)) {
+                throw new IllegalArgumentException("Density must be in [0, 1], got " + density);
+            }
+            return random -> random.nextDouble() < density ? nonzero.sample(random) : 0.0;
+        }
+    }
+
+    private final SplittableRandom root;
+    private final ForkJoinPool pool;
+
+    public RandomMatrixGenerator(long seed) {
+        this(seed, ForkJoinPool.commonPool());
+    }
+
+    public RandomMatrixGenerator(long seed, ForkJoinPool pool) {
+        this.root = new SplittableRandom(seed);
+        this.pool = pool;
+    }
+
+    public Matrix generate(int rows, int cols) {
+        return generate(rows, cols, Distribution.uniform());
+    }
+
+    public Matrix generate(int rows, int cols, Distribution distribution) {
+        int blockRows = blockRows(rows, cols);
+        SplittableRandom[] streams = streams((rows + blockRows - 1) / blockRows);
+        double[] data = new double[Math.multiplyExact(rows, cols)];
+        fill(new FillTask(data, 0, cols, blockRows, rows, streams, distribution, 0, streams.length));
+        return Matrix.adopt(data, rows, cols);
+    }
+
+    public OffHeapMatrix generateOffHeap(int rows, int cols) {
+        return generateOffHeap(rows, cols, Distribution.uniform());
+    }
+
+    /**
+     * The matrix {@link #generate} would return for the same call, filled off
+     * the heap. Blocks are filled in parallel batches of one block per pool
+     * thread, each batch through the same heap buffer, so at most that many
+     * blocks are ever on the heap.
+     */
+    public OffHeapMatrix generateOffHeap(int rows, int cols, Distribution distribution) {
+        int blockRows = blockRows(rows, cols);
+        SplittableRandom[] streams = streams((rows + blockRows - 1) / blockRows);
+        int batch = Math.max(1, pool.getParallelism());
+        double[] buffer = new double[Math.multiplyExact((int) Math.min(rows, (long) batch * blockRows), cols)];
+
+        OffHeapMatrix m = OffHeapMatrix.allocate(rows, cols);
+        try {
+            for (int from = 0; from < streams.length; from += batch) {
+                int to = Math.min(streams.length, from + batch);
+                int firstRow = from * blockRows;
+                fill(new FillTask(buffer, firstRow, cols, blockRows, rows, streams, distribution, from, to));
+                m.writeTile(firstRow, 0, Math.min(rows, to * blockRows) - firstRow, cols, buffer, 0, cols);
+            }
+        } catch (RuntimeException | Error e) {
+            m.close();
+            throw e;
+        }
+        return m;
+    }
+
+    private static int blockRows(int rows, int cols) {
+        if (rows <= 0 || cols <= 0) {
+            throw new IllegalArgumentException("Matrix cannot be null or empty.");
+        }
+        return Math.max(1, BLOCK_ELEMENTS / cols);
+    }
+
+    /** The next split of the root, cut into one stream per block. */
+    private SplittableRandom[] streams(int blocks) {
+        SplittableRandom[] streams = new SplittableRandom[blocks];
+        synchronized (root) {
+            SplittableRandom call = root.split();
+            for (int b = 0; b < blocks; b++) {
+                streams[b] = call.split();
+            }
+        }
+        return streams;
+    }
+
+    private void fill(FillTask task) {
+        if (task.to - task.from == 1) {
+            task.compute();
+        } else if (ForkJoinTask.getPool() == pool) {
+            task.invoke();
+        } else {
+            pool.invoke(task);
+        }
+    }
+
+    private static final class FillTask extends RecursiveAction {
+
+        private final double[] data;
+        private final int firstRow;   // Row of the matrix held at data[0]
+        private final int cols;
+        private final int blockRows;
+        private final int rows;
+        private final SplittableRandom[] streams;
+        private final Distribution distribution;
+        private final int from;       // Inclusive
+        private final int to;         // Exclusive
+
+        FillTask(double[] data, int firstRow, int cols, int blockRows, int rows, SplittableRandom[] streams,
+                 Distribution distribution, int from, int to) {
+            this.data = data;
+            this.firstRow = firstRow;
+            this.cols = cols;
+            this.blockRows = blockRows;
+            this.rows = rows;
+            this.streams = streams;
+            this.distribution = distribution;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                SplittableRandom random = streams[from];
+                int start = (from * blockRows - firstRow) * cols;
+                int end = (Math.min(rows, (from + 1) * blockRows) - firstRow) * cols;
+                for (int i = start; i < end; i++) {
+                    data[i] = distribution.sample(random);
+                }
+                return;
+            }
+            int mid = from + (to - from) / 2;
+            FillTask first = new FillTask(data, firstRow, cols, blockRows, rows, streams, distribution, from, mid);
+            first.fork();
+            new FillTask(data, firstRow, cols, blockRows, rows, streams, distribution, mid, to).compute();
+            first.join();
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package model;
+
+public class SequentialFloatMatrixMultiplier implements FloatMatrixMultiplier {
+
+    private final FloatKernel kernel;
+    private final boolean accumulateInDouble;
+
+    public SequentialFloatMatrixMultiplier() {
+        this(new FloatKernel(), false);
+    }
+
+    /**
+     * @param accumulateInDouble sum products in a double buffer and round once at
+     *                           the end, trading C bandwidth for accuracy
+     */
+    public SequentialFloatMatrixMultiplier(FloatKernel kernel, boolean accumulateInDouble) {
+        this.kernel = kernel;
+        this.accumulateInDouble = accumulateInDouble;
+    }
+
+    @Override
+    public FloatMatrix multiply(FloatMatrix a, FloatMatrix b) {
+        MatrixUtils.validateDimensions(a.getRows(), a.getCols(), b.getRows(), b.getCols());
+
+        int m = a.getRows();
+        int n = a.getCols();
+        int p = b.getCols();
+        FloatKernel.Panels packedB = kernel.pack(b);
+
+        if (accumulateInDouble) {
+            double[] wide = new double[m * p];
+            kernel.multiply(a, packedB, wide, 0, p, 0, m, 0, p, 0, n);
+            return FloatMatrix.adopt(FloatKernel.narrow(wide), m, p);
+        }
+
+        float[] result = new float[m * p];
+        kernel.multiply(a, packedB, result, 0, p, 0, m, 0, p, 0, n);
+        return FloatMatrix.adopt(result, m, p);
+    }
+}
@@ -1,7 +1,26 @@
 package model;
 
+/**
+ * Single-threaded multiplier. By default it runs the plain i-j-k triple loop,
+ * which shares no code with the blocked kernel and so serves as the reference
+ * the other engines are tested against; pass a {@link BlockedKernel} to run
+ * that kernel on one thread instead.
+ */
 public class SequentialMatrixMultiplier implements MatrixMultiplier {
 
+    private final BlockedKernel kernel;     // Null for the naive loop
+
+    public SequentialMatrixMultiplier() {
+        this.kernel = null;
+    }
+
+    public SequentialMatrixMultiplier(BlockedKernel kernel) {
+        if (kernel == null) {
+            throw new IllegalArgumentException("Kernel cannot be null; use the default constructor for the naive loop");
+        }
+        this.kernel = kernel;
+    }
+
     @Override
     public Matrix multiply(Matrix a, Matrix b) {
         MatrixUtils.validateDimensions(a, b);
@@ -10,18 +29,25 @@ public class SequentialMatrixMultiplier implements MatrixMultiplier {
         int n = a.getCols();
         int p = b.getCols();
 
-        double[][] result = new double[m][p];
+        double[] result = new double[m * p];
+        if (kernel != null) {
+            kernel.multiply(a, kernel.pack(b), result, 0, p, 0, m, 0, p, 0, n);
+            return Matrix.adopt(result, m, p);
+        }
 
+        double[] aData = a.raw();
+        double[] bData = b.raw();
         for (int i = 0; i < m; i++) {
+            int aRow = i * n;
             for (int j = 0; j < p; j++) {
                 double sum = 0.0;
                 for (int k = 0; k < n; k++) {
-                    sum += a.get(i, k) * b.get(k, j);
+                    sum += aData[aRow + k] * bData[k * p + j];
                 }
-                result[i][j] = sum;
+                result[i * p + j] = sum;
             }
         }
 
-        return new Matrix(result);
+        return Matrix.adopt(result, m, p);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,45 @@
+package model;
+
+/**
+ * Coarse classification of an (m x n) * (n x p) product, used to pick tuned
+ * parameters. A dimension counts as dominant once it is 4x the other one.
+ */
+public enum ShapeClass {
+    SQUARE,
+    SHORT_WIDE,
+    TALL_NARROW,
+    INNER;
+
+    public static ShapeClass of(int m, int n, int p) {
+        if (n >= 4L * Math.max(m, p)) {
+            return INNER;
+        }
+        if (p >= 4L * m) {
+            return SHORT_WIDE;
+        }
+        if (m >= 4L * p) {
+            return TALL_NARROW;
+        }
+        return SQUARE;
+    }
+
+    /**
+     * Size bucket: log2 of the edge of the cube with the same multiply-add
+     * count, so a 512x512x512 product and a 64x512x4096 one share bucket 9.
+     */
+    public static int sizeBucket(int m, int n, int p) {
+        double edge = Math.cbrt((double) m * n * p);
+        return (int) Math.round(Math.log(edge) / Math.log(2));
+    }
+
+    /** Dimensions {m, n, p} of a representative product of this class with size³ multiply-adds. */
+    public int[] dimensions(int size) {
+        int eighth = Math.max(1, size / 8);
+        return switch (this) {
+            case SQUARE -> new int[]{size, size, size};
+            case SHORT_WIDE -> new int[]{eighth, size, size * 8};
+            case TALL_NARROW -> new int[]{size * 8, size, eighth};
+            case INNER -> new int[]{eighth, size * 64, eighth};
+        };
+    }
+}
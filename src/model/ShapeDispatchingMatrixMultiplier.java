@@ -0,0 +1,211 @@
+package model;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Routes each product by shape. Products with a vector operand do O(1) work
+ * per element they load, so they are bound by memory bandwidth and gain
+ * nothing from packing or tiling. They get dedicated parallel kernels, and
+ * every other shape goes to the general engine:
+ * <ul>
+ * <li>GEVM (1 x n times n x p, including dot products): y = x · B streams the
+ * rows of B into L1-sized segments of y. Wide results are split by column.
+ * Narrow ones are split along n, and the halves' partial sums are added
+ * after the join, so a dot product is not left to a single leaf.</li>
+ * <li>GEMV (m x n times n x 1): one dot product per row of A, with rows split
+ * across the pool.</li>
+ * <li>Outer product (m x 1 times 1 x p): every row of C is a scaled copy of
+ * b, with rows split across the pool. The cost is pure store bandwidth.</li>
+ * </ul>
+ */
+public class ShapeDispatchingMatrixMultiplier implements MatrixMultiplier {
+
+    private static final int GRAIN = 1 << 14;
+    // Columns of y a GEVM leaf keeps hot in L1 while rows of B stream past
+    private static final int GEVM_COLUMNS = 2048;
+
+    /** Where a product is sent; see {@link #route}. */
+    public enum Route {
+        GEVM,
+        GEMV,
+        OUTER,
+        GENERAL
+    }
+
+    private final MatrixMultiplier general;
+    private final ForkJoinPool pool;
+    private final LongAdder[] routed = new LongAdder[Route.values().length];
+
+    public ShapeDispatchingMatrixMultiplier() {
+        this(new ForkJoinMatrixMultiplier(64));
+    }
+
+    /** Vector kernels run in general's pool when it is a fork/join engine, else in the common pool. */
+    public ShapeDispatchingMatrixMultiplier(MatrixMultiplier general) {
+        this(general, general instanceof ForkJoinMatrixMultiplier engine ? engine.getPool() : ForkJoinPool.commonPool());
+    }
+
+    public ShapeDispatchingMatrixMultiplier(MatrixMultiplier general, ForkJoinPool pool) {
+        this.general = general;
+        this.pool = pool;
+        for (int r = 0; r < routed.length; r++) {
+            routed[r] = new LongAdder();
+        }
+    }
+
+    /** The route for an (m x n) * (n x p) product; a single row takes precedence. */
+    public static Route route(int m, int n, int p) {
+        if (m == 1) {
+            return Route.GEVM;
+        }
+        if (p == 1) {
+            return Route.GEMV;
+        }
+        if (n == 1) {
+            return Route.OUTER;
+        }
+        return Route.GENERAL;
+    }
+
+    @Override
+    public Matrix multiply(Matrix a, Matrix b) {
+        MatrixUtils.validateDimensions(a, b);
+        int m = a.getRows();
+        int n = a.getCols();
+        int p = b.getCols();
+        Route route = route(m, n, p);
+        routed[route.ordinal()].increment();
+
+        return switch (route) {
+            case GEVM -> {
+                double[] y = new double[p];
+                run(new GevmTask(a.raw(), Block.of(b), y, 0, 0, p, 0, n));
+                yield Matrix.adopt(y, 1, p);
+            }
+            case GEMV -> {
+                double[] y = new double[m];
+                MatVecTask.apply(pool, Block.of(a), b.raw(), y, false);
+                yield Matrix.adopt(y, m, 1);
+            }
+            case OUTER -> {
+                double[] c = new double[Math.multiplyExact(m, p)];
+                run(new OuterTask(a.raw(), b.raw(), c, 0, m, Math.max(1, GRAIN / p)));
+                yield Matrix.adopt(c, m, p);
+            }
+            case GENERAL -> general.multiply(a, b);
+        };
+    }
+
+    /** Products sent down the given route so far. */
+    public long getRouteCount(Route route) {
+        return routed[route.ordinal()].sum();
+    }
+
+    // Runs in the caller's worker when already inside the pool
+    private void run(RecursiveAction task) {
+        if (ForkJoinTask.getPool() == pool) {
+            task.invoke();
+        } else {
+            pool.invoke(task);
+        }
+    }
+
+    // y[yOffset ..] += x[kFrom, kTo) · B[kFrom, kTo)[colFrom, colTo)
+    private static final class GevmTask extends RecursiveAction {
+
+        private final double[] x;
+        private final Block b;
+        private final double[] y;
+        private final int yOffset;    // Where column colFrom lands in y
+        private final int colFrom;    // Inclusive
+        private final int colTo;      // Exclusive
+        private final int kFrom;      // Inclusive
+        private final int kTo;        // Exclusive
+
+        GevmTask(double[] x, Block b, double[] y, int yOffset, int colFrom, int colTo, int kFrom, int kTo) {
+            this.x = x;
+            this.b = b;
+            this.y = y;
+            this.yOffset = yOffset;
+            this.colFrom = colFrom;
+            this.colTo = colTo;
+            this.kFrom = kFrom;
+            this.kTo = kTo;
+        }
+
+        @Override
+        protected void compute() {
+            int cols = colTo - colFrom;
+            int depth = kTo - kFrom;
+            if (cols > GEVM_COLUMNS) {
+                int mid = colFrom + cols / 2;
+                GevmTask left = new GevmTask(x, b, y, yOffset, colFrom, mid, kFrom, kTo);
+                left.fork();
+                new GevmTask(x, b, y, yOffset + (mid - colFrom), mid, colTo, kFrom, kTo).compute();
+                left.join();
+            } else if ((long) cols * depth > GRAIN && depth > 1) {
+                // The upper half of K sums into a private segment, added back after the join
+                int mid = kFrom + depth / 2;
+                double[] partial = new double[cols];
+                GevmTask lower = new GevmTask(x, b, y, yOffset, colFrom, colTo, kFrom, mid);
+                lower.fork();
+                new GevmTask(x, b, partial, 0, colFrom, colTo, mid, kTo).compute();
+                lower.join();
+                for (int j = 0; j < cols; j++) {
+                    y[yOffset + j] += partial[j];
+                }
+            } else {
+                for (int k = kFrom; k < kTo; k++) {
+                    double xk = x[k];
+                    int row = b.index(k, colFrom);
+                    for (int j = 0; j < cols; j++) {
+                        y[yOffset + j] += xk * b.data[row + j];
+                    }
+                }
+            }
+        }
+    }
+
+    // Rows [from, to) of C = a · b for a column a and a row b
+    private static final class OuterTask extends RecursiveAction {
+
+        private final double[] a;
+        private final double[] b;
+        private final double[] c;
+        private final int from;       // Inclusive
+        private final int to;         // Exclusive
+        private final int rowGrain;
+
+        OuterTask(double[] a, double[] b, double[] c, int from, int to, int rowGrain) {
+            this.a = a;
+            this.b = b;
+            this.c = c;
+            this.from = from;
+            this.to = to;
+            this.rowGrain = rowGrain;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= rowGrain) {
+                int p = b.length;
+                for (int i = from; i < to; i++) {
+                    double ai = a[i];
+                    int row = i * p;
+                    for (int j = 0; j < p; j++) {
+                        c[row + j] = ai * b[j];
+                    }
+                }
+                return;
+            }
+            int mid = from + (to - from) / 2;
+            OuterTask top = new OuterTask(a, b, c, from, mid, rowGrain);
+            top.fork();
+            new OuterTask(a, b, c, mid, to, rowGrain).compute();
+            top.join();
+        }
+    }
+}
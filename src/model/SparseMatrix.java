@@ -0,0 +1,172 @@
+package model;
+
+import java.util.Arrays;
+
+/**
+ * Immutable sparse matrix in compressed sparse row (CSR) form: the nonzeros of
+ * row i are values[rowPtr[i] .. rowPtr[i + 1]) at columns colIdx[same range],
+ * with column indices strictly increasing inside a row.
+ * <p>
+ * {@link #transpose()} returns the CSR form of the transpose, which is the CSC
+ * form of this matrix.
+ */
+public class SparseMatrix {
+    private final int rows;
+    private final int cols;
+    private final int[] rowPtr;
+    private final int[] colIdx;
+    private final double[] values;
+
+    public SparseMatrix(int rows, int cols, int[] rowPtr, int[] colIdx, double[] values) {
+        this(rows, cols, rowPtr.clone(), colIdx.clone(), values.clone(), true);
+    }
+
+    private SparseMatrix(int rows, int cols, int[] rowPtr, int[] colIdx, double[] values, boolean validate) {
+        if (validate) {
+            validate(rows, cols, rowPtr, colIdx, values);
+        }
+        this.rows = rows;
+        this.cols = cols;
+        this.rowPtr = rowPtr;
+        this.colIdx = colIdx;
+        this.values = values;
+    }
+
+    // Wraps arrays built by the kernels in this package without copying them
+    static SparseMatrix adopt(int rows, int cols, int[] rowPtr, int[] colIdx, double[] values) {
+        return new SparseMatrix(rows, cols, rowPtr, colIdx, values, false);
+    }
+
+    private static void validate(int rows, int cols, int[] rowPtr, int[] colIdx, double[] values) {
+        if (rows <= 0 || cols <= 0) {
+            throw new IllegalArgumentException("Matrix cannot be null or empty.");
+        }
+        if (rowPtr.length != rows + 1 || rowPtr[0] != 0) {
+            throw new IllegalArgumentException("rowPtr must have rows + 1 entries and start at 0");
+        }
+        int nnz = rowPtr[rows];
+        if (colIdx.length != nnz || values.length != nnz) {
+            throw new IllegalArgumentException(
+                    String.format("Expected %d column indices and values, got %d and %d",
+                            nnz, colIdx.length, values.length)
+            );
+        }
+        for (int i = 0; i < rows; i++) {
+            if (rowPtr[i] > rowPtr[i + 1]) {
+                throw new IllegalArgumentException("rowPtr must be non-decreasing (row " + i + ")");
+            }
+            for (int e = rowPtr[i]; e < rowPtr[i + 1]; e++) {
+                if (colIdx[e] < 0 || colIdx[e] >= cols || (e > rowPtr[i] && colIdx[e] <= colIdx[e - 1])) {
+                    throw new IllegalArgumentException(
+                            "Column indices must be in range and strictly increasing (row " + i + ")");
+                }
+            }
+        }
+    }
+
+    /** Keeps every element that is not exactly zero. */
+    public static SparseMatrix fromDense(Matrix m) {
+        int rows = m.getRows();
+        int cols = m.getCols();
+        double[] data = m.raw();
+
+        int nnz = 0;
+        for (double v : data) {
+            if (v != 0.0) {
+                nnz++;
+            }
+        }
+
+        int[] rowPtr = new int[rows + 1];
+        int[] colIdx = new int[nnz];
+        double[] values = new double[nnz];
+        int e = 0;
+        for (int i = 0; i < rows; i++) {
+            int base = i * cols;
+            for (int j = 0; j < cols; j++) {
+                double v = data[base + j];
+                if (v != 0.0) {
+                    colIdx[e] = j;
+                    values[e] = v;
+                    e++;
+                }
+            }
+            rowPtr[i + 1] = e;
+        }
+        return adopt(rows, cols, rowPtr, colIdx, values);
+    }
+
+    public Matrix toDense() {
+        double[] data = new double[rows * cols];
+        for (int i = 0; i < rows; i++) {
+            int base = i * cols;
+            for (int e = rowPtr[i]; e < rowPtr[i + 1]; e++) {
+                data[base + colIdx[e]] = values[e];
+            }
+        }
+        return Matrix.adopt(data, rows, cols);
+    }
+
+    public SparseMatrix transpose() {
+        int nnz = getNonZeroCount();
+        int[] tPtr = new int[cols + 1];
+        for (int e = 0; e < nnz; e++) {
+            tPtr[colIdx[e] + 1]++;
+        }
+        for (int j = 0; j < cols; j++) {
+            tPtr[j + 1] += tPtr[j];
+        }
+
+        int[] next = Arrays.copyOf(tPtr, cols);
+        int[] tCol = new int[nnz];
+        double[] tVal = new double[nnz];
+        for (int i = 0; i < rows; i++) {
+            for (int e = rowPtr[i]; e < rowPtr[i + 1]; e++) {
+                int dst = next[colIdx[e]]++;
+                tCol[dst] = i;
+                tVal[dst] = values[e];
+            }
+        }
+        return adopt(cols, rows, tPtr, tCol, tVal);
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getCols() {
+        return cols;
+    }
+
+    public int getNonZeroCount() {
+        return rowPtr[rows];
+    }
+
+    public double getDensity() {
+        return (double) getNonZeroCount() / ((double) rows * cols);
+    }
+
+    public double get(int row, int col) {
+        if (row < 0 || row >= rows || col < 0 || col >= cols) {
+            throw new IndexOutOfBoundsException(
+                    String.format("Invalid indices (%d, %d) for matrix of size %dx%d",
+                            row, col, rows, cols)
+            );
+        }
+        int e = Arrays.binarySearch(colIdx, rowPtr[row], rowPtr[row + 1], col);
+        return e >= 0 ? values[e] : 0.0;
+    }
+
+    // Kernel access: the CSR arrays themselves, must be treated as read-only
+    int[] rowPtr() {
+        return rowPtr;
+    }
+
+    int[] colIdx() {
+        return colIdx;
+    }
+
+    double[] values() {
+        return values;
+    }
+}
@@ -0,0 +1,200 @@
+package model;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Parallel multiplier for CSR operands: sparse x dense and sparse x sparse
+ * (row-wise Gustavson with a dense accumulator per leaf).
+ * <p>
+ * Rows are split by work, not by count: each task covers a row range whose
+ * estimated multiply-adds (nonzeros of A times the width of the B rows they
+ * touch) exceed the grain, and it splits at the row where half of that work has
+ * been done. A few very dense rows therefore no longer serialize a whole leaf.
+ */
+public class SparseMatrixMultiplier implements MatrixMultiplier {
+
+    public static final int DEFAULT_GRAIN = 1 << 16;
+
+    private final int grain;
+    private final ForkJoinPool pool;
+
+    public SparseMatrixMultiplier() {
+        this(DEFAULT_GRAIN);
+    }
+
+    public SparseMatrixMultiplier(int grain) {
+        this(grain, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param grain multiply-adds below which a row range is computed directly
+     */
+    public SparseMatrixMultiplier(int grain, ForkJoinPool pool) {
+        if (grain < 1) {
+            throw new IllegalArgumentException("Grain must be a positive integer, got " + grain);
+        }
+        this.grain = grain;
+        this.pool = pool;
+    }
+
+    /** Treats A as sparse: converts it to CSR, then multiplies sparse x dense. */
+    @Override
+    public Matrix multiply(Matrix a, Matrix b) {
+        MatrixUtils.validateDimensions(a, b);
+        return multiply(SparseMatrix.fromDense(a), b);
+    }
+
+    public Matrix multiply(SparseMatrix a, Matrix b) {
+        MatrixUtils.validateDimensions(a.getRows(), a.getCols(), b.getRows(), b.getCols());
+
+        int m = a.getRows();
+        int p = b.getCols();
+        int[] rowPtr = a.rowPtr();
+        long[] work = new long[m + 1];
+        for (int i = 0; i <= m; i++) {
+            work[i] = (long) rowPtr[i] * p;
+        }
+
+        double[] result = new double[m * p];
+        pool.invoke(new RowRangeTask(work, 0, m, (from, to) -> sparseTimesDense(a, b, result, from, to)));
+        return Matrix.adopt(result, m, p);
+    }
+
+    public SparseMatrix multiply(SparseMatrix a, SparseMatrix b) {
+        MatrixUtils.validateDimensions(a.getRows(), a.getCols(), b.getRows(), b.getCols());
+
+        int m = a.getRows();
+        int[] aPtr = a.rowPtr();
+        int[] aCol = a.colIdx();
+        int[] bPtr = b.rowPtr();
+        long[] work = new long[m + 1];
+        for (int i = 0; i < m; i++) {
+            long rowWork = 0;
+            for (int e = aPtr[i]; e < aPtr[i + 1]; e++) {
+                rowWork += bPtr[aCol[e] + 1] - bPtr[aCol[e]];
+            }
+            work[i + 1] = work[i] + rowWork;
+        }
+
+        int[][] rowCols = new int[m][];
+        double[][] rowVals = new double[m][];
+        pool.invoke(new RowRangeTask(work, 0, m, (from, to) -> sparseTimesSparse(a, b, rowCols, rowVals, from, to)));
+
+        int[] rowPtr = new int[m + 1];
+        for (int i = 0; i < m; i++) {
+            rowPtr[i + 1] = rowPtr[i] + rowCols[i].length;
+        }
+        int[] colIdx = new int[rowPtr[m]];
+        double[] values = new double[rowPtr[m]];
+        for (int i = 0; i < m; i++) {
+            System.arraycopy(rowCols[i], 0, colIdx, rowPtr[i], rowCols[i].length);
+            System.arraycopy(rowVals[i], 0, values, rowPtr[i], rowVals[i].length);
+        }
+        return SparseMatrix.adopt(m, b.getCols(), rowPtr, colIdx, values);
+    }
+
+    // C[i, :] = sum over nonzeros A[i, k] of A[i, k] * B[k, :], one contiguous axpy per nonzero
+    private static void sparseTimesDense(SparseMatrix a, Matrix b, double[] c, int from, int to) {
+        int[] rowPtr = a.rowPtr();
+        int[] colIdx = a.colIdx();
+        double[] values = a.values();
+        double[] bData = b.raw();
+        int p = b.getCols();
+
+        for (int i = from; i < to; i++) {
+            int cRow = i * p;
+            for (int e = rowPtr[i]; e < rowPtr[i + 1]; e++) {
+                double v = values[e];
+                int bRow = colIdx[e] * p;
+                for (int j = 0; j < p; j++) {
+                    c[cRow + j] += v * bData[bRow + j];
+                }
+            }
+        }
+    }
+
+    // Gustavson: scatter each row into a dense accumulator, then gather the touched columns in order
+    private static void sparseTimesSparse(SparseMatrix a, SparseMatrix b, int[][] rowCols, double[][] rowVals,
+                                          int from, int to) {
+        int[] aPtr = a.rowPtr();
+        int[] aCol = a.colIdx();
+        double[] aVal = a.values();
+        int[] bPtr = b.rowPtr();
+        int[] bCol = b.colIdx();
+        double[] bVal = b.values();
+
+        double[] accumulator = new double[b.getCols()];
+        boolean[] occupied = new boolean[b.getCols()];
+        int[] touched = new int[b.getCols()];
+
+        for (int i = from; i < to; i++) {
+            int count = 0;
+            for (int e = aPtr[i]; e < aPtr[i + 1]; e++) {
+                double v = aVal[e];
+                int k = aCol[e];
+                for (int f = bPtr[k]; f < bPtr[k + 1]; f++) {
+                    int j = bCol[f];
+                    if (!occupied[j]) {
+                        occupied[j] = true;
+                        touched[count++] = j;
+                    }
+                    accumulator[j] += v * bVal[f];
+                }
+            }
+
+            Arrays.sort(touched, 0, count);
+            int[] cols = new int[count];
+            double[] vals = new double[count];
+            for (int t = 0; t < count; t++) {
+                int j = touched[t];
+                cols[t] = j;
+                vals[t] = accumulator[j];
+                accumulator[j] = 0.0;
+                occupied[j] = false;
+            }
+            rowCols[i] = cols;
+            rowVals[i] = vals;
+        }
+    }
+
+    private interface RowRangeBody {
+        void run(int from, int to);
+    }
+
+    private class RowRangeTask extends RecursiveAction {
+
+        private final long[] work;      // work[i] = multiply-adds of rows [0, i)
+        private final int startRow;     // Inclusive
+        private final int endRow;       // Exclusive
+        private final RowRangeBody body;
+
+        RowRangeTask(long[] work, int startRow, int endRow, RowRangeBody body) {
+            this.work = work;
+            this.startRow = startRow;
+            this.endRow = endRow;
+            this.body = body;
+        }
+
+        @Override
+        protected void compute() {
+            if (endRow - startRow <= 1 || work[endRow] - work[startRow] <= grain) {
+                body.run(startRow, endRow);
+                return;
+            }
+
+            // First row at which half of this range's work is done, kept strictly inside the range
+            long half = work[startRow] + (work[endRow] - work[startRow]) / 2;
+            int mid = Arrays.binarySearch(work, startRow, endRow + 1, half);
+            mid = mid >= 0 ? mid : -mid - 1;
+            mid = Math.max(startRow + 1, Math.min(endRow - 1, mid));
+
+            RowRangeTask left = new RowRangeTask(work, startRow, mid, body);
+            RowRangeTask right = new RowRangeTask(work, mid, endRow, body);
+            left.fork();
+            right.compute();
+            left.join();
+        }
+    }
+}
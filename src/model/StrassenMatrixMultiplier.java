@@ -0,0 +1,229 @@
+package model;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Strassen multiplier: each recursion level replaces 8 half-size products with 7.
+ * Once the smallest dimension of a sub-problem is at or below the crossover, it
+ * is handed to the {@link ForkJoinMatrixMultiplier} kernel, whose tiles run in
+ * parallel across the pool.
+ * <p>
+ * Odd and rectangular shapes are zero-padded once, up front, to the next multiple
+ * of 2^levels in every dimension, so every level halves exactly. A node runs its
+ * 7 products one after another: it forms the two operand sums of the next
+ * product only, multiplies them into a product buffer and adds that buffer
+ * straight into the C quadrants it contributes to. The sum and product buffers
+ * are allocated once per recursion depth for the whole multiply and reused by
+ * every node at that depth, so the temporaries total about (m·n + n·p + m·p) / 3
+ * doubles however deep the recursion goes. Quadrants that enter a product
+ * unchanged are read in place.
+ */
+public class StrassenMatrixMultiplier implements MatrixMultiplier {
+
+    public static final int DEFAULT_CROSSOVER = 512;
+
+    private final int crossover;
+    private final ForkJoinMatrixMultiplier leafMultiplier;
+    private final ForkJoinPool pool;
+
+    public StrassenMatrixMultiplier() {
+        this(DEFAULT_CROSSOVER);
+    }
+
+    public StrassenMatrixMultiplier(int crossover) {
+        this(crossover, new ForkJoinMatrixMultiplier(64));
+    }
+
+    /**
+     * The sub-products run in the leaf multiplier's pool.
+     */
+    public StrassenMatrixMultiplier(int crossover, ForkJoinMatrixMultiplier leafMultiplier) {
+        if (crossover < 1) {
+            throw new IllegalArgumentException("Crossover must be a positive integer, got " + crossover);
+        }
+        this.crossover = crossover;
+        this.leafMultiplier = leafMultiplier;
+        this.pool = leafMultiplier.getPool();
+    }
+
+    public int getCrossover() {
+        return crossover;
+    }
+
+    @Override
+    public Matrix multiply(Matrix a, Matrix b) {
+        MatrixUtils.validateDimensions(a, b);
+
+        int m = a.getRows();
+        int n = a.getCols();
+        int p = b.getCols();
+
+        int levels = levelsFor(Math.min(m, Math.min(n, p)));
+        int unit = 1 << levels;
+        int pm = roundUp(m, unit);
+        int pn = roundUp(n, unit);
+        int pp = roundUp(p, unit);
+
+        Block paddedA = pad(Block.of(a), pm, pn);
+        Block paddedB = pad(Block.of(b), pn, pp);
+        double[] result = new double[pm * pp];
+
+        pool.invoke(new StrassenTask(paddedA, paddedB, result, 0, pp, levels));
+
+        if (pm == m && pp == p) {
+            return Matrix.adopt(result, m, p);
+        }
+        double[] trimmed = new double[m * p];
+        for (int i = 0; i < m; i++) {
+            System.arraycopy(result, i * pp, trimmed, i * p, p);
+        }
+        return Matrix.adopt(trimmed, m, p);
+    }
+
+    // Number of halvings until the smallest dimension reaches the crossover
+    private int levelsFor(int smallest) {
+        int levels = 0;
+        while (smallest > crossover) {
+            smallest = (smallest + 1) / 2;
+            levels++;
+        }
+        return levels;
+    }
+
+    private static int roundUp(int value, int unit) {
+        return (value + unit - 1) / unit * unit;
+    }
+
+    private static Block pad(Block src, int rows, int cols) {
+        if (src.rows == rows && src.cols == cols) {
+            return src;
+        }
+        double[] padded = new double[rows * cols];
+        for (int i = 0; i < src.rows; i++) {
+            System.arraycopy(src.data, src.index(i, 0), padded, i * cols, src.cols);
+        }
+        return new Block(padded, 0, cols, rows, cols);
+    }
+
+    // One depth's scratch: an A-side sum, a B-side sum and a product, all quadrant-sized
+    private static final class Workspace {
+        final double[] left;
+        final double[] right;
+        final double[] product;
+
+        Workspace(int h, int k, int w) {
+            this.left = new double[h * k];
+            this.right = new double[k * w];
+            this.product = new double[h * w];
+        }
+    }
+
+    private class StrassenTask extends RecursiveAction {
+
+        private final Block a;
+        private final Block b;
+        private final double[] out;     // Zeroed on entry, result is written (not accumulated)
+        private final int outOffset;
+        private final int outStride;
+        private final Workspace[] workspaces;   // Filled on first use, one per recursion depth
+
+        StrassenTask(Block a, Block b, double[] out, int outOffset, int outStride, int levels) {
+            this.a = a;
+            this.b = b;
+            this.out = out;
+            this.outOffset = outOffset;
+            this.outStride = outStride;
+            this.workspaces = new Workspace[levels];
+        }
+
+        @Override
+        protected void compute() {
+            multiply(a, b, out, outOffset, outStride, 0);
+        }
+
+        // Writes a * b into the zeroed out region, using the workspace of this depth and those below
+        private void multiply(Block a, Block b, double[] out, int outOffset, int outStride, int depth) {
+            int smallest = Math.min(a.rows, Math.min(a.cols, b.cols));
+            if (smallest <= crossover || smallest % 2 != 0 || depth == workspaces.length) {
+                leafMultiplier.multiplyInto(a, b, out, outOffset, outStride);
+                return;
+            }
+
+            int h = a.rows / 2;
+            int k = a.cols / 2;
+            int w = b.cols / 2;
+
+            Block a11 = a.sub(0, 0, h, k), a12 = a.sub(0, k, h, k);
+            Block a21 = a.sub(h, 0, h, k), a22 = a.sub(h, k, h, k);
+            Block b11 = b.sub(0, 0, k, w), b12 = b.sub(0, w, k, w);
+            Block b21 = b.sub(k, 0, k, w), b22 = b.sub(k, w, k, w);
+
+            if (workspaces[depth] == null) {
+                workspaces[depth] = new Workspace(h, k, w);
+            }
+            Workspace ws = workspaces[depth];
+            Block c = new Block(out, outOffset, outStride, a.rows, b.cols);
+            Block c11 = c.sub(0, 0, h, w), c12 = c.sub(0, w, h, w);
+            Block c21 = c.sub(h, 0, h, w), c22 = c.sub(h, w, h, w);
+
+            // M1 = (A11 + A22)(B11 + B22) goes to C11 and C22
+            product(sum(a11, a22, +1, ws.left), sum(b11, b22, +1, ws.right), ws, depth);
+            accumulate(ws, +1, c11, c22);
+            // M2 = (A21 + A22) B11: C21 += M2, C22 -= M2
+            product(sum(a21, a22, +1, ws.left), b11, ws, depth);
+            accumulate(ws, +1, c21);
+            accumulate(ws, -1, c22);
+            // M3 = A11 (B12 - B22): C12 and C22
+            product(a11, sum(b12, b22, -1, ws.right), ws, depth);
+            accumulate(ws, +1, c12, c22);
+            // M4 = A22 (B21 - B11): C11 and C21
+            product(a22, sum(b21, b11, -1, ws.right), ws, depth);
+            accumulate(ws, +1, c11, c21);
+            // M5 = (A11 + A12) B22: C11 -= M5, C12 += M5
+            product(sum(a11, a12, +1, ws.left), b22, ws, depth);
+            accumulate(ws, -1, c11);
+            accumulate(ws, +1, c12);
+            // M6 = (A21 - A11)(B11 + B12): C22
+            product(sum(a21, a11, -1, ws.left), sum(b11, b12, +1, ws.right), ws, depth);
+            accumulate(ws, +1, c22);
+            // M7 = (A12 - A22)(B21 + B22): C11
+            product(sum(a12, a22, -1, ws.left), sum(b21, b22, +1, ws.right), ws, depth);
+            accumulate(ws, +1, c11);
+        }
+
+        // Overwrites the depth's product buffer with left * right
+        private void product(Block left, Block right, Workspace ws, int depth) {
+            Arrays.fill(ws.product, 0.0);
+            multiply(left, right, ws.product, 0, right.cols, depth + 1);
+        }
+
+        // Adds sign times the product buffer into each of the targets
+        private void accumulate(Workspace ws, int sign, Block... targets) {
+            for (Block target : targets) {
+                for (int i = 0; i < target.rows; i++) {
+                    int dst = target.index(i, 0);
+                    int src = i * target.cols;
+                    for (int j = 0; j < target.cols; j++) {
+                        target.data[dst + j] += sign * ws.product[src + j];
+                    }
+                }
+            }
+        }
+
+        // Writes x + sign * y into buffer and returns it as a contiguous block
+        private Block sum(Block x, Block y, int sign, double[] buffer) {
+            int cols = x.cols;
+            for (int i = 0; i < x.rows; i++) {
+                int xi = x.index(i, 0);
+                int yi = y.index(i, 0);
+                int dst = i * cols;
+                for (int j = 0; j < cols; j++) {
+                    buffer[dst + j] = x.data[xi + j] + sign * y.data[yi + j];
+                }
+            }
+            return new Block(buffer, 0, cols, x.rows, cols);
+        }
+    }
+}
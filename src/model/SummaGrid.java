@@ -0,0 +1,97 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Block layout and panel schedule of a SUMMA product of an m x n and an n x p
+ * matrix on a gridRows x gridCols process grid. Process (i, j) owns block (i, j)
+ * of C, the A block over the same rows and the j-th of gridCols slices of K,
+ * and the B block over the i-th of gridRows slices of K and the same columns.
+ * The coordinator and every worker derive the same layout and schedule from
+ * these seven numbers, so only the numbers go over the wire.
+ */
+final class SummaGrid {
+
+    final int gridRows;
+    final int gridCols;
+    final int m;
+    final int n;
+    final int p;
+    final int panelWidth;
+
+    SummaGrid(int gridRows, int gridCols, int m, int n, int p, int panelWidth) {
+        this.gridRows = gridRows;
+        this.gridCols = gridCols;
+        this.m = m;
+        this.n = n;
+        this.p = p;
+        this.panelWidth = panelWidth;
+    }
+
+    int index(int row, int col) {
+        return row * gridCols + col;
+    }
+
+    /** First row of C (and A) owned by grid row i; i = gridRows gives m. */
+    int rowStart(int i) {
+        return split(m, gridRows, i);
+    }
+
+    /** First column of C (and B) owned by grid column j; j = gridCols gives p. */
+    int colStart(int j) {
+        return split(p, gridCols, j);
+    }
+
+    /** First K index of the A blocks in grid column j. */
+    int aDepthStart(int j) {
+        return split(n, gridCols, j);
+    }
+
+    /** First K index of the B blocks in grid row i. */
+    int bDepthStart(int i) {
+        return split(n, gridRows, i);
+    }
+
+    private static int split(int length, int parts, int index) {
+        return (int) ((long) index * length / parts);
+    }
+
+    /**
+     * The K panels in order. A panel is at most panelWidth wide and never
+     * crosses a slice boundary of A or B, so each of its two halves has a
+     * single owner in every grid row or column.
+     */
+    List<Step> steps() {
+        List<Step> steps = new ArrayList<>();
+        int aCol = 0;
+        int bRow = 0;
+        for (int k0 = 0; k0 < n; ) {
+            while (aDepthStart(aCol + 1) <= k0) {
+                aCol++;
+            }
+            while (bDepthStart(bRow + 1) <= k0) {
+                bRow++;
+            }
+            int k1 = Math.min(k0 + panelWidth, Math.min(aDepthStart(aCol + 1), bDepthStart(bRow + 1)));
+            steps.add(new Step(k0, k1, aCol, bRow));
+            k0 = k1;
+        }
+        return steps;
+    }
+
+    /** Panel [k0, k1): grid column aCol holds its A half, grid row bRow its B half. */
+    static final class Step {
+        final int k0;
+        final int k1;
+        final int aCol;
+        final int bRow;
+
+        Step(int k0, int k1, int aCol, int bRow) {
+            this.k0 = k0;
+            this.k1 = k1;
+            this.aCol = aCol;
+            this.bRow = bRow;
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package model;
+
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * The tile decomposition shared by the fork/join engines, independent of element
+ * type. A task covers rows x cols x depth of the iteration space and writes its
+ * output tile into a buffer of type B (double[], float[], ...) addressed from the
+ * tile origin: element (i, j) lands at offset + (i - startRow) * stride + (j - startCol).
+ * <p>
+ * Tiles at most leafArea elements large (or below leafWork multiply-adds in total)
+ * are handed to {@link Ops#leaf}. Larger ones split the larger output dimension;
+ * when the output tile is smaller than its depth the K range is split instead and
+ * the upper half accumulates into a private buffer that is added back after the join.
+ * Every task checks {@link Ops#isCancelled} before doing anything, so a cancelled
+ * run drains without computing further tiles.
+ * <p>
+ * Once a tile of the real output holds its whole K range (right after its leaf,
+ * or after the K-split reduction that spans it) it is passed to {@link Ops#complete},
+ * exactly once per output element and while the tile is still in cache.
+ */
+final class TileTask<B> extends RecursiveAction {
+
+    /** Element-type specific parts of a multiplication. */
+    interface Ops<B> {
+        /** Accumulates the product of the given ranges into out. */
+        void leaf(B out, int offset, int stride,
+                  int startRow, int endRow, int startCol, int endCol, int startK, int endK);
+
+        /** A zeroed buffer of the given length. */
+        B allocate(int length);
+
+        /** target tile (rows x cols at offset/stride) += partial (rows x cols, dense). */
+        void add(B target, int offset, int stride, B partial, int rows, int cols);
+
+        /** Called once per finished output tile, after its last K range has been stored. */
+        default void complete(B out, int offset, int stride, int startRow, int endRow, int startCol, int endCol) {
+        }
+
+        /** Once true, tasks that have not started return immediately; the output is then undefined. */
+        default boolean isCancelled() {
+            return false;
+        }
+    }
+
+    private final Ops<B> ops;
+    private final long leafArea;
+    private final long leafWork;
+    private final int panelWidth;     // Column splits snap to multiples of this
+    private final B out;
+    private final int outOffset;
+    private final int outStride;
+    private final int startRow;       // Inclusive (المعيد قال عليها)
+    private final int endRow;         // Exclusive (المعيد قال عليها)
+    private final int startCol;       // Inclusive
+    private final int endCol;         // Exclusive
+    private final int startK;         // Inclusive
+    private final int endK;           // Exclusive
+    private final int totalDepth;     // The root's K range, so tiles spanning [0, totalDepth) are final
+
+    /** Root task covering the whole (rows x cols x depth) product. */
+    TileTask(Ops<B> ops, int threshold, int panelWidth, B out, int outOffset, int outStride,
+             int rows, int cols, int depth) {
+        this(ops, (long) threshold * threshold, (long) threshold * threshold * threshold, panelWidth,
+                out, outOffset, outStride, 0, rows, 0, cols, 0, depth, depth);
+    }
+
+    private TileTask(Ops<B> ops, long leafArea, long leafWork, int panelWidth,
+                     B out, int outOffset, int outStride,
+                     int startRow, int endRow, int startCol, int endCol, int startK, int endK, int totalDepth) {
+        this.ops = ops;
+        this.leafArea = leafArea;
+        this.leafWork = leafWork;
+        this.panelWidth = panelWidth;
+        this.out = out;
+        this.outOffset = outOffset;
+        this.outStride = outStride;
+        this.startRow = startRow;
+        this.endRow = endRow;
+        this.startCol = startCol;
+        this.endCol = endCol;
+        this.startK = startK;
+        this.endK = endK;
+        this.totalDepth = totalDepth;
+    }
+
+    @Override
+    protected void compute() {
+        if (ops.isCancelled()) {
+            return;
+        }
+        int rowCount = endRow - startRow;
+        int colCount = endCol - startCol;
+        int depth = endK - startK;
+
+        long area = (long) rowCount * colCount;
+
+        if (area * depth <= leafWork) {
+            computeDirectly();
+        } else if (depth > area) {
+            splitDepth();
+        } else if (area <= leafArea) {
+            computeDirectly();
+        } else if (rowCount >= colCount) {
+            int mid = startRow + rowCount / 2;
+            int midOffset = outOffset + (mid - startRow) * outStride;
+
+            TileTask<B> top = subTask(out, outOffset, outStride, startRow, mid, startCol, endCol, startK, endK);
+            TileTask<B> bottom = subTask(out, midOffset, outStride, mid, endRow, startCol, endCol, startK, endK);
+            forkBoth(top, bottom);
+        } else {
+            int mid = splitColumn();
+            int midOffset = outOffset + (mid - startCol);
+
+            TileTask<B> left = subTask(out, outOffset, outStride, startRow, endRow, startCol, mid, startK, endK);
+            TileTask<B> right = subTask(out, midOffset, outStride, startRow, endRow, mid, endCol, startK, endK);
+            forkBoth(left, right);
+        }
+    }
+
+    // Both halves share the output tile, so the upper half of K accumulates
+    // into a private buffer which is reduced into the tile after the join.
+    private void splitDepth() {
+        int rowCount = endRow - startRow;
+        int colCount = endCol - startCol;
+        int mid = startK + (endK - startK) / 2;
+        B partial = ops.allocate(rowCount * colCount);
+
+        TileTask<B> lower = subTask(out, outOffset, outStride, startRow, endRow, startCol, endCol, startK, mid);
+        TileTask<B> upper = subTask(partial, 0, colCount, startRow, endRow, startCol, endCol, mid, endK);
+        forkBoth(lower, upper);
+
+        ops.add(out, outOffset, outStride, partial, rowCount, colCount);
+        completeIfFinal();
+    }
+
+    // Midpoint of the column range, snapped to a packed panel boundary when
+    // one falls inside the range so leaves don't straddle panels
+    private int splitColumn() {
+        int mid = startCol + (endCol - startCol) / 2;
+        int aligned = mid - mid % panelWidth;
+        if (aligned > startCol) {
+            return aligned;
+        }
+        aligned += panelWidth;
+        return aligned < endCol ? aligned : mid;
+    }
+
+    private TileTask<B> subTask(B target, int offset, int stride,
+                                int rowFrom, int rowTo, int colFrom, int colTo, int kFrom, int kTo) {
+        return new TileTask<>(ops, leafArea, leafWork, panelWidth, target, offset, stride,
+                rowFrom, rowTo, colFrom, colTo, kFrom, kTo, totalDepth);
+    }
+
+    private void forkBoth(TileTask<B> first, TileTask<B> second) {
+        first.fork();
+        second.compute();
+        first.join();
+    }
+
+    private void computeDirectly() {
+        ops.leaf(out, outOffset, outStride, startRow, endRow, startCol, endCol, startK, endK);
+        completeIfFinal();
+    }
+
+    // K-split partial buffers only ever hold upper K ranges, so [0, totalDepth) means the real output
+    private void completeIfFinal() {
+        if (startK == 0 && endK == totalDepth && !ops.isCancelled()) {
+            ops.complete(out, outOffset, outStride, startRow, endRow, startCol, endCol);
+        }
+    }
+
+    // Reduction for double-valued Ops#add implementations
+    static void addTile(double[] target, int offset, int stride, double[] partial, int rows, int cols) {
+        for (int i = 0; i < rows; i++) {
+            int row = offset + i * stride;
+            int partialRow = i * cols;
+            for (int j = 0; j < cols; j++) {
+                target[row + j] += partial[partialRow + j];
+            }
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package model;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Properties;
+import java.util.TreeMap;
+
+/**
+ * Tuned fork/join parameters per (shape class, size bucket), together with the
+ * host they were measured on. Stored as a plain properties file:
+ * <pre>
+ * host.cores=8
+ * host.l1d=49152
+ * host.l2=1310720
+ * SQUARE.9=64,256,128        # threshold,blockK,blockN
+ * </pre>
+ * Lookups fall back to the nearest bucket of the same shape class, then to any
+ * square entry, then to the built-in defaults. {@link #load} rejects unknown
+ * keys and non-positive parameters up front, so a bad file fails once, at load
+ * time, rather than on every lookup.
+ */
+public class TuningProfile {
+
+    public static final Path DEFAULT_LOCATION =
+            Path.of(System.getProperty("user.home"), ".parallel-matrix", "tuning.properties");
+
+    private final HostInfo host;
+    private final Map<ShapeClass, NavigableMap<Integer, Parameters>> entries = new EnumMap<>(ShapeClass.class);
+
+    public TuningProfile(HostInfo host) {
+        this.host = host;
+    }
+
+    public HostInfo getHost() {
+        return host;
+    }
+
+    public boolean isEmpty() {
+        return entries.isEmpty();
+    }
+
+    public void put(ShapeClass shape, int bucket, Parameters parameters) {
+        entries.computeIfAbsent(shape, _ -> new TreeMap<>()).put(bucket, parameters);
+    }
+
+    public Parameters lookup(int m, int n, int p) {
+        ShapeClass shape = ShapeClass.of(m, n, p);
+        int bucket = ShapeClass.sizeBucket(m, n, p);
+
+        Parameters best = nearest(shape, bucket);
+        if (best == null && shape != ShapeClass.SQUARE) {
+            best = nearest(ShapeClass.SQUARE, bucket);
+        }
+        return best != null ? best : Parameters.DEFAULT;
+    }
+
+    // Ties go to the smaller bucket
+    private Parameters nearest(ShapeClass shape, int bucket) {
+        NavigableMap<Integer, Parameters> buckets = entries.get(shape);
+        if (buckets == null) {
+            return null;
+        }
+        Map.Entry<Integer, Parameters> below = buckets.floorEntry(bucket);
+        Map.Entry<Integer, Parameters> above = buckets.ceilingEntry(bucket);
+        if (below == null || above == null) {
+            return below != null ? below.getValue() : above.getValue();
+        }
+        return bucket - below.getKey() <= above.getKey() - bucket ? below.getValue() : above.getValue();
+    }
+
+    private static String key(ShapeClass shape, int bucket) {
+        return shape.name() + "." + bucket;
+    }
+
+    /**
+     * Loads a profile, or returns null if the file does not exist. Missing host
+     * fields, keys that are not SHAPE.bucket, and parameters that are not three
+     * positive integers are reported as an {@link IOException}.
+     */
+    public static TuningProfile load(Path file) throws IOException {
+        if (!Files.exists(file)) {
+            return null;
+        }
+        Properties props = new Properties();
+        try (Reader reader = Files.newBufferedReader(file)) {
+            props.load(reader);
+        }
+
+        TuningProfile profile;
+        try {
+            profile = new TuningProfile(new HostInfo(
+                    Integer.parseInt(props.getProperty("host.cores")),
+                    Long.parseLong(props.getProperty("host.l1d")),
+                    Long.parseLong(props.getProperty("host.l2"))));
+
+            for (String name : props.stringPropertyNames()) {
+                if (name.startsWith("host.")) {
+                    continue;
+                }
+                int dot = name.indexOf('.');
+                if (dot < 0) {
+                    throw new IllegalArgumentException("Key " + name + " is not SHAPE.bucket");
+                }
+                ShapeClass shape = ShapeClass.valueOf(name.substring(0, dot));
+                int bucket = Integer.parseInt(name.substring(dot + 1));
+                if (bucket < 0) {
+                    throw new IllegalArgumentException("Negative size bucket in " + name);
+                }
+                String[] parts = props.getProperty(name).split(",");
+                if (parts.length != 3) {
+                    throw new IllegalArgumentException(String.format(
+                            "%s has %d values, expected threshold,blockK,blockN", name, parts.length));
+                }
+                profile.put(shape, bucket, new Parameters(
+                        Integer.parseInt(parts[0].trim()),
+                        Integer.parseInt(parts[1].trim()),
+                        Integer.parseInt(parts[2].trim())));
+            }
+        } catch (RuntimeException e) {
+            throw new IOException("Malformed tuning profile " + file + ": " + e.getMessage(), e);
+        }
+        return profile;
+    }
+
+    public void save(Path file) throws IOException {
+        Properties props = new Properties();
+        props.setProperty("host.cores", Integer.toString(host.getCores()));
+        props.setProperty("host.l1d", Long.toString(host.getL1dBytes()));
+        props.setProperty("host.l2", Long.toString(host.getL2Bytes()));
+        for (Map.Entry<ShapeClass, NavigableMap<Integer, Parameters>> shape : entries.entrySet()) {
+            for (Map.Entry<Integer, Parameters> entry : shape.getValue().entrySet()) {
+                Parameters params = entry.getValue();
+                props.setProperty(key(shape.getKey(), entry.getKey()),
+                        params.getThreshold() + "," + params.getBlockK() + "," + params.getBlockN());
+            }
+        }
+
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        try (Writer writer = Files.newBufferedWriter(file)) {
+            props.store(writer, "Parallel matrix multiplication tuning profile (" + host + ")");
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("Tuning profile for ").append(host);
+        for (Map.Entry<ShapeClass, NavigableMap<Integer, Parameters>> shape : entries.entrySet()) {
+            for (Map.Entry<Integer, Parameters> entry : shape.getValue().entrySet()) {
+                sb.append("\n  ").append(key(shape.getKey(), entry.getKey())).append(" -> ").append(entry.getValue());
+            }
+        }
+        return sb.toString();
+    }
+
+    public static final class Parameters {
+
+        public static final Parameters DEFAULT =
+                new Parameters(64, BlockedKernel.DEFAULT_BLOCK_K, BlockedKernel.DEFAULT_BLOCK_N);
+
+        private final int threshold;
+        private final int blockK;
+        private final int blockN;
+
+        public Parameters(int threshold, int blockK, int blockN) {
+            if (threshold < 1 || blockK < 1 || blockN < 1) {
+                throw new IllegalArgumentException(String.format(
+                        "Parameters must be positive (threshold=%d, blockK=%d, blockN=%d)", threshold, blockK, blockN));
+            }
+            this.threshold = threshold;
+            this.blockK = blockK;
+            this.blockN = blockN;
+        }
+
+        public int getThreshold() {
+            return threshold;
+        }
+
+        public int getBlockK() {
+            return blockK;
+        }
+
+        public int getBlockN() {
+            return blockN;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Parameters other
+                    && threshold == other.threshold && blockK == other.blockK && blockN == other.blockN;
+        }
+
+        @Override
+        public int hashCode() {
+            return (threshold * 31 + blockK) * 31 + blockN;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("threshold=%d, blockK=%d, blockN=%d", threshold, blockK, blockN);
+        }
+    }
+}
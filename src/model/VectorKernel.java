@@ -0,0 +1,37 @@
+package model;
+
+/**
+ * {@link BlockedKernel} whose innermost axpy runs on {@code jdk.incubator.vector}
+ * at the platform's preferred species width. The packed B panels keep that loop
+ * unit-stride, so it maps directly onto vector loads, FMAs and stores.
+ * <p>
+ * The incubator module is only linked when it was resolved at startup
+ * ({@code --add-modules jdk.incubator.vector}); otherwise this kernel silently
+ * runs the scalar loop inherited from {@link BlockedKernel}.
+ */
+public class VectorKernel extends BlockedKernel {
+
+    private static final boolean AVAILABLE =
+            ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+
+    public VectorKernel() {
+        super();
+    }
+
+    public VectorKernel(int blockK, int blockN) {
+        super(blockK, blockN);
+    }
+
+    public static boolean isAvailable() {
+        return AVAILABLE;
+    }
+
+    @Override
+    protected void axpy(double alpha, double[] x, int xOffset, double[] y, int yOffset, int length) {
+        if (AVAILABLE) {
+            VectorOps.axpy(alpha, x, xOffset, y, yOffset, length);
+        } else {
+            super.axpy(alpha, x, xOffset, y, yOffset, length);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package model;
+
+/**
+ * Single-threaded multiplier running the {@link VectorKernel}. For the parallel
+ * version pass a VectorKernel to {@link ForkJoinMatrixMultiplier} as its leaf kernel.
+ */
+public class VectorMatrixMultiplier extends SequentialMatrixMultiplier {
+
+    public VectorMatrixMultiplier() {
+        super(new VectorKernel());
+    }
+
+    public VectorMatrixMultiplier(int blockK, int blockN) {
+        super(new VectorKernel(blockK, blockN));
+    }
+}
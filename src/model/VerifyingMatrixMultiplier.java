@@ -0,0 +1,48 @@
+package model;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Decorator that runs a {@link FreivaldsVerifier} on every product before
+ * returning it, turning a silently wrong result (a kernel bug, a race, a bad
+ * tuning choice) into an {@link IllegalStateException}. The check costs a few
+ * matrix-vector products per round, small next to the product for all but the
+ * thinnest shapes.
+ */
+public class VerifyingMatrixMultiplier implements MatrixMultiplier {
+
+    private final MatrixMultiplier delegate;
+    private final FreivaldsVerifier verifier;
+
+    private final LongAdder checks = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+
+    public VerifyingMatrixMultiplier(MatrixMultiplier delegate, FreivaldsVerifier verifier) {
+        this.delegate = delegate;
+        this.verifier = verifier;
+    }
+
+    @Override
+    public Matrix multiply(Matrix a, Matrix b) {
+        Matrix result = delegate.multiply(a, b);
+        checks.increment();
+        if (!verifier.verify(a, b, result)) {
+            failures.increment();
+            throw new IllegalStateException(
+                    String.format("Product of %dx%d and %dx%d failed verification after %d rounds "
+                                    + "(residual %.3g, tolerance %.3g)",
+                            a.getRows(), a.getCols(), b.getRows(), b.getCols(), verifier.getRounds(),
+                            verifier.residual(a, b, result), verifier.getTolerance())
+            );
+        }
+        return result;
+    }
+
+    public long getChecks() {
+        return checks.sum();
+    }
+
+    public long getFailures() {
+        return failures.sum();
+    }
+}
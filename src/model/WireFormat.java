@@ -0,0 +1,123 @@
+package model;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+
+/**
+ * The protocol of {@link DistributedMatrixMultiplier} and {@link MatrixWorker}.
+ * Every message is a one-byte opcode followed by its fields. Coordinator to
+ * worker:
+ * <pre>
+ * SETUP    long session, int gridRows, int gridCols, int index,
+ *          int m, int n, int p, int panelWidth,
+ *          gridRows·gridCols × (UTF host, int port)   the grid's workers, row-major
+ *                                       reply: long session, once the worker takes its panels
+ * LOAD_A   int row, int count, tile     rows [row, row + count) of this worker's A block
+ * LOAD_B   int row, int count, tile     rows [row, row + count) of this worker's B block
+ * RUN                                   reply: long computeNanos, long waitNanos, long peerBytes
+ * GATHER   int bandRows                 reply: the C block as consecutive tiles of bandRows rows
+ * SHUTDOWN                              end of session, the worker closes the connection
+ * </pre>
+ * Worker to worker, on a connection the sender opens for one session:
+ * <pre>
+ * PEER     long session, int index      the sender's grid index, once
+ * PANEL    tile                         the sender's next A or B panel, in step order
+ * SHUTDOWN                              no more panels
+ * </pre>
+ * A tile is its int row and column counts followed by the elements in row-major
+ * order as 8-byte little-endian IEEE 754 doubles, with no per-element framing,
+ * so encoding is a bulk copy through a {@link DoubleBuffer} view. Ints and longs
+ * use {@link DataOutputStream}'s big-endian encoding.
+ */
+final class WireFormat {
+
+    static final byte SETUP = 1;
+    static final byte LOAD_A = 2;
+    static final byte LOAD_B = 3;
+    static final byte RUN = 4;
+    static final byte GATHER = 5;
+    static final byte SHUTDOWN = 6;
+    static final byte PEER = 7;
+    static final byte PANEL = 8;
+
+    /** Size of the scratch buffers tiles are encoded through, and of the stream buffers. */
+    static final int CHUNK_BYTES = 1 << 16;
+
+    private WireFormat() {
+    }
+
+    /** Writes the tile and returns the number of bytes it took. */
+    static long writeTile(DataOutputStream out, Block tile, byte[] scratch) throws IOException {
+        out.writeInt(tile.rows);
+        out.writeInt(tile.cols);
+        DoubleBuffer doubles = ByteBuffer.wrap(scratch).order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer();
+        for (int i = 0; i < tile.rows; i++) {
+            int src = tile.index(i, 0);
+            int left = tile.cols;
+            while (left > 0) {
+                if (!doubles.hasRemaining()) {
+                    out.write(scratch, 0, doubles.position() * Double.BYTES);
+                    doubles.clear();
+                }
+                int count = Math.min(left, doubles.remaining());
+                if (tile.colStride == 1) {
+                    doubles.put(tile.data, src, count);
+                } else {
+                    for (int j = 0; j < count; j++) {
+                        doubles.put(tile.data[src + j * tile.colStride]);
+                    }
+                }
+                src += count * tile.colStride;
+                left -= count;
+            }
+        }
+        out.write(scratch, 0, doubles.position() * Double.BYTES);
+        return 2L * Integer.BYTES + (long) tile.rows * tile.cols * Double.BYTES;
+    }
+
+    /** Reads a tile into a new dense row-major block. */
+    static Block readTile(DataInputStream in, byte[] scratch) throws IOException {
+        int rows = in.readInt();
+        int cols = in.readInt();
+        if (rows < 0 || cols < 0) {
+            throw new IOException(String.format("Corrupt tile header: %dx%d", rows, cols));
+        }
+        Block tile = new Block(new double[Math.multiplyExact(rows, cols)], 0, cols, rows, cols);
+        readElements(in, scratch, tile);
+        return tile;
+    }
+
+    /** Reads a tile into target (a view with colStride 1), whose shape it must have. */
+    static void readTile(DataInputStream in, byte[] scratch, Block target) throws IOException {
+        int rows = in.readInt();
+        int cols = in.readInt();
+        if (rows != target.rows || cols != target.cols) {
+            throw new IOException(String.format("Expected a %dx%d tile, got %dx%d",
+                    target.rows, target.cols, rows, cols));
+        }
+        readElements(in, scratch, target);
+    }
+
+    private static void readElements(DataInputStream in, byte[] scratch, Block target) throws IOException {
+        DoubleBuffer doubles = ByteBuffer.wrap(scratch).order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer();
+        // A dense target is read as one long row
+        boolean dense = target.stride == target.cols;
+        int rows = dense ? Math.min(1, target.rows) : target.rows;
+        int rowLength = dense ? target.rows * target.cols : target.cols;
+        for (int i = 0; i < rows; i++) {
+            int pos = target.index(i, 0);
+            for (int left = rowLength; left > 0; ) {
+                int count = Math.min(left, scratch.length / Double.BYTES);
+                in.readFully(scratch, 0, count * Double.BYTES);
+                doubles.clear();
+                doubles.get(target.data, pos, count);
+                pos += count;
+                left -= count;
+            }
+        }
+    }
+}
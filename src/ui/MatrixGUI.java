@@ -8,13 +8,15 @@ import java.awt.event.ActionListener;
 public class MatrixGUI extends JFrame {
     private JComboBox<String> sizeBox;
     private JTextField thresholdField;
+    private JCheckBox autoTuneBox;
     private DefaultTableModel tableModel;
     private JButton runButton;
+    private JButton cancelButton;
     private JButton clearButton;
 
     public MatrixGUI() {
         setTitle("model.Matrix Multiplication Benchmark");
-        setSize(750, 450);
+        setSize(1100, 450);
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
         setLayout(new BorderLayout(10, 10));
         setLocationRelativeTo(null);
@@ -28,21 +30,28 @@ public class MatrixGUI extends JFrame {
 
         sizeBox = new JComboBox<>(new String[]{"128", "256", "512", "1024"});
         thresholdField = new JTextField("64", 6);
+        autoTuneBox = new JCheckBox("Auto-tune");
+        autoTuneBox.addActionListener(_ -> thresholdField.setEnabled(!autoTuneBox.isSelected()));
         runButton = new JButton("Run Test");
+        cancelButton = new JButton("Cancel");
+        cancelButton.setEnabled(false);
         clearButton = new JButton("Clear Results");
 
         top.add(new JLabel("Matrix Size:"));
         top.add(sizeBox);
         top.add(new JLabel("Threshold:"));
         top.add(thresholdField);
+        top.add(autoTuneBox);
         top.add(runButton);
+        top.add(cancelButton);
         top.add(clearButton);
 
         add(top, BorderLayout.NORTH);
     }
 
     private void addResultsTable() {
-        String[] columns = {"Matrix Size", "Threshold", "Sequential (ms)", "Parallel (ms)", "Speedup"};
+        String[] columns = {"Matrix Size", "Threshold", "Sequential (ms)", "Parallel (ms)", "Speedup",
+                "GFLOP/s", "Tasks", "Steals", "Leaf p50/p99 (µs)", "Alloc (MB)"};
         tableModel = new DefaultTableModel(columns, 0);
         JTable resultsTable = new JTable(tableModel);
         resultsTable.setFont(new Font("Monospaced", Font.PLAIN, 12));
@@ -54,6 +63,10 @@ public class MatrixGUI extends JFrame {
         runButton.addActionListener(listener);
     }
 
+    public void addCancelListener(ActionListener listener) {
+        cancelButton.addActionListener(listener);
+    }
+
     public void addClearListener(ActionListener listener) {
         clearButton.addActionListener(listener);
     }
@@ -66,18 +79,24 @@ public class MatrixGUI extends JFrame {
         return Integer.parseInt(thresholdField.getText());
     }
 
+    public boolean isAutoTune() {
+        return autoTuneBox.isSelected();
+    }
+
     public void setControlsEnabled(boolean enabled) {
         sizeBox.setEnabled(enabled);
-        thresholdField.setEnabled(enabled);
+        thresholdField.setEnabled(enabled && !autoTuneBox.isSelected());
+        autoTuneBox.setEnabled(enabled);
         runButton.setEnabled(enabled);
+        cancelButton.setEnabled(!enabled);
     }
 
     public void clearTable() {
         tableModel.setRowCount(0);
     }
 
-    public int addInitialRow(String size, int threshold, long seqTime) {
-        tableModel.addRow(new Object[]{size, threshold, seqTime, "-", "-"});
+    public int addInitialRow(String size, String threshold, long seqTime) {
+        tableModel.addRow(new Object[]{size, threshold, seqTime, "-", "-", "-", "-", "-", "-", "-"});
         return tableModel.getRowCount() - 1;
     }
 
@@ -86,6 +105,19 @@ public class MatrixGUI extends JFrame {
         tableModel.setValueAt(speedup, rowIndex, 4);
     }
 
+    // Statistics of the parallel run, filled in once it has finished
+    public void updateMetrics(int rowIndex, String gflops, long tasks, long steals, String leafTimes, String allocated) {
+        tableModel.setValueAt(gflops, rowIndex, 5);
+        tableModel.setValueAt(tasks, rowIndex, 6);
+        tableModel.setValueAt(steals, rowIndex, 7);
+        tableModel.setValueAt(leafTimes, rowIndex, 8);
+        tableModel.setValueAt(allocated, rowIndex, 9);
+    }
+
+    public void markCancelled(int rowIndex) {
+        tableModel.setValueAt("Cancelled", rowIndex, 3);
+    }
+
     // Updates just the time (useful for live updates if needed)
     public void updateParallelTime(int rowIndex, long time) {
         tableModel.setValueAt(time, rowIndex, 3);
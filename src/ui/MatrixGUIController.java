@@ -5,16 +5,22 @@ import model.*;
 import javax.swing.*;
 import java.awt.event.ActionEvent;
 import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
-import java.util.function.IntConsumer;
 
 public class MatrixGUIController {
     private final MatrixGUI view;
+    // The run in flight; Cancel before it exists is remembered in the flag
+    private volatile CompletableFuture<Matrix> running;
+    private volatile boolean cancelRequested;
 
     public MatrixGUIController(MatrixGUI view) {
         this.view = view;
 
         this.view.addRunListener(this::runBenchmark);
+        this.view.addCancelListener(this::cancelBenchmark);
         this.view.addClearListener(_ -> view.clearTable());
 
         this.view.setVisible(true);
@@ -23,24 +29,27 @@ public class MatrixGUIController {
     private void runBenchmark(ActionEvent e) {
         int size;
         int threshold;
+        boolean autoTune = view.isAutoTune();
 
         // Get Inputs
         try {
             size = view.getSelectedSize();
-            threshold = view.getThreshold();
-            if (threshold < 1) throw new NumberFormatException();
+            threshold = autoTune ? 0 : view.getThreshold();
+            if (!autoTune && threshold < 1) throw new NumberFormatException();
         } catch (NumberFormatException ex) {
             view.showError("Invalid input. Threshold must be a positive integer.");
             return;
         }
 
         view.setControlsEnabled(false);
+        cancelRequested = false;
 
         // Start Background Worker (Background عشان في ال Frezz الي كان بيحصل :))
         SwingWorker<Void, Long> worker = new SwingWorker<>() {
             private int rowIndex = -1;
             private long seqTime = 0L;
             private long parTime = 0L;
+            private ExecutionMetrics metrics;
 
             @Override
             protected Void doInBackground() throws Exception {
@@ -51,21 +60,37 @@ public class MatrixGUIController {
                 MatrixMultiplier seq = new SequentialMatrixMultiplier();
                 seqTime = MatrixUtils.measure(() -> seq.multiply(A, B));
 
+                // Auto-tune: loads the host's profile, or calibrates it on first use
+                ForkJoinMatrixMultiplier par = autoTune
+                        ? AutoTunedMatrixMultiplier.fromDefaultProfile().engineFor(A, B)
+                        : new ForkJoinMatrixMultiplier(threshold);
+                String thresholdLabel = autoTune
+                        ? "auto (" + par.getThreshold() + ")"
+                        : String.valueOf(threshold);
+
+                if (cancelRequested) {
+                    throw new CancellationException();
+                }
+
                 // Update View: Add row immediately
                 SwingUtilities.invokeAndWait(() -> {
-                    rowIndex = view.addInitialRow(size + "x" + size, threshold, seqTime);
+                    rowIndex = view.addInitialRow(size + "x" + size, thresholdLabel, seqTime);
                 });
 
-                // Parallel Run
-                ForkJoinMatrixMultiplier par = new ForkJoinMatrixMultiplier(threshold);
+                // Parallel Run: progress arrives at most every 50 ms, so the EDT is not flooded
                 final long start = System.nanoTime();
 
-                IntConsumer progressCallback = completedRows -> {
+                metrics = new ExecutionMetrics(ExecutionMetrics.DEFAULT_REPORT_INTERVAL_MS, (_, _) -> {
                     long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
                     publish(elapsedMs);
-                };
+                });
 
-                par.multiply(A, B, progressCallback);
+                CompletableFuture<Matrix> future = par.multiplyAsync(A, B, null, metrics);
+                running = future;
+                if (cancelRequested) {
+                    future.cancel(true);
+                }
+                future.join();
                 parTime = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
                 return null;
             }
@@ -73,7 +98,7 @@ public class MatrixGUIController {
             @Override
             protected void process(List<Long> chunks) {
                 // Live update of the timer in the table
-                if (rowIndex >= 0) {
+                if (rowIndex >= 0 && !cancelRequested) {
                     view.updateParallelTime(rowIndex, chunks.getLast());
                 }
             }
@@ -89,14 +114,39 @@ public class MatrixGUIController {
                             speedupStr = String.format("%.2fx", speedup);
                         }
                         view.updateParallelResults(rowIndex, parTime, speedupStr);
+                        long allocated = metrics.getAllocatedBytes();
+                        view.updateMetrics(rowIndex,
+                                String.format("%.2f", metrics.getGflops()),
+                                metrics.getTaskCount(),
+                                metrics.getStealCount(),
+                                metrics.getLeafTimePercentile(50) / 1000 + " / " + metrics.getLeafTimePercentile(99) / 1000,
+                                allocated < 0 ? "N/A" : String.format("%.1f", allocated / 1e6));
+                    }
+                } catch (ExecutionException ex) {
+                    if (ex.getCause() instanceof CancellationException) {
+                        if (rowIndex >= 0) {
+                            view.markCancelled(rowIndex);
+                        }
+                    } else {
+                        view.showError("Error: " + ex.getCause().getMessage());
                     }
                 } catch (Exception ex) {
                     view.showError("Error: " + ex.getMessage());
                 } finally {
+                    running = null;
                     view.setControlsEnabled(true);
                 }
             }
         };
         worker.execute();
     }
+
+    // Stops the parallel run cooperatively; its workers are free again within milliseconds
+    private void cancelBenchmark(ActionEvent e) {
+        cancelRequested = true;
+        CompletableFuture<Matrix> current = running;
+        if (current != null) {
+            current.cancel(true);
+        }
+    }
 }
\ No newline at end of file